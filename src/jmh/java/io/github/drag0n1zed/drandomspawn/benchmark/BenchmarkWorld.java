@@ -0,0 +1,106 @@
+package io.github.drag0n1zed.drandomspawn.benchmark;
+
+import io.github.drag0n1zed.drandomspawn.search.CandidateGenerator;
+import io.github.drag0n1zed.drandomspawn.search.SearchAreaShape;
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderOwner;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup for the benchmarks: boots the vanilla registries and builds search profiles and biomes
+ * without a server, a config file or datapacks.
+ */
+final class BenchmarkWorld {
+
+    // Biomes are a datapack registry, so the benchmarks use stand-alone holders that only carry a key.
+    private static final HolderOwner<Biome> BIOME_OWNER = new HolderOwner<>() {
+    };
+
+    private static boolean bootstrapped;
+
+    private BenchmarkWorld() {
+    }
+
+    static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            bootstrapped = true;
+        }
+    }
+
+    /**
+     * Builds a profile whose block and biome blacklists each hold {@code blacklistSize} entries, plus {@code tagCount} tags each.
+     * The block blacklist always starts with lava and magma, so the safety check has something real to reject.
+     */
+    static SearchProfile profile(int minDistance, int maxDistance, int blacklistSize, int tagCount) {
+        List<Block> blocks = new ArrayList<>();
+        if (blacklistSize > 0) {
+            blocks.add(Blocks.LAVA);
+            blocks.add(Blocks.MAGMA_BLOCK);
+        }
+        for (Block block : BuiltInRegistries.BLOCK) {
+            if (blocks.size() >= blacklistSize) {
+                break;
+            }
+            if (!blocks.contains(block) && !block.defaultBlockState().isAir()) {
+                blocks.add(block);
+            }
+        }
+
+        List<ResourceKey<Biome>> biomes = new ArrayList<>();
+        for (int i = 0; i < blacklistSize; i++) {
+            biomes.add(biomeKey(i));
+        }
+
+        List<TagKey<Block>> blockTags = new ArrayList<>();
+        List<TagKey<Biome>> biomeTags = new ArrayList<>();
+        for (int i = 0; i < tagCount; i++) {
+            blockTags.add(TagKey.create(Registries.BLOCK, new ResourceLocation("benchmark", "block_tag_" + i)));
+            biomeTags.add(TagKey.create(Registries.BIOME, new ResourceLocation("benchmark", "biome_tag_" + i)));
+        }
+
+        return SearchProfile.builder()
+                .distance(minDistance, maxDistance)
+                .maxTries(1000)
+                .blockBlacklist(blocks, blockTags)
+                .biomeBlacklist(biomes, biomeTags)
+                .build();
+    }
+
+    /**
+     * Builds a profile with empty blacklists, for benchmarks that only look at the search area.
+     */
+    static SearchProfile areaProfile(int minDistance, int maxDistance, SearchAreaShape shape, CandidateGenerator.Type generator) {
+        return SearchProfile.builder()
+                .distance(minDistance, maxDistance)
+                .maxTries(1000)
+                .shape(shape)
+                .candidateGenerator(generator)
+                .build();
+    }
+
+    /**
+     * Returns the key of the i-th synthetic biome. Keys below the blacklist size are blacklisted by {@link #profile}.
+     */
+    static ResourceKey<Biome> biomeKey(int i) {
+        return ResourceKey.create(Registries.BIOME, new ResourceLocation("benchmark", "biome_" + i));
+    }
+
+    static Holder<Biome> biome(int i) {
+        return Holder.Reference.createStandAlone(BIOME_OWNER, biomeKey(i));
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.drag0n1zed.drandomspawn.benchmark;
+
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one block or biome blacklist lookup, for empty, typical and very long blacklists, with and without tags.
+ * Half of the looked-up blocks and biomes are blacklisted when the blacklist is not empty.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlacklistBenchmark {
+
+    private static final int SAMPLE_COUNT = 1024;
+
+    @Param({"0", "10", "200"})
+    public int blacklistSize;
+
+    @Param({"0", "4"})
+    public int tagCount;
+
+    private SearchProfile profile;
+    private BlockState[] states;
+    private Holder<Biome>[] biomes;
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        BenchmarkWorld.bootstrap();
+        profile = BenchmarkWorld.profile(0, 10000, blacklistSize, tagCount);
+
+        List<Block> allBlocks = new ArrayList<>();
+        BuiltInRegistries.BLOCK.forEach(allBlocks::add);
+        Random random = new Random(42);
+        states = new BlockState[SAMPLE_COUNT];
+        biomes = new Holder[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            // Even samples come from the start of the registry, where the blacklist was taken from.
+            int blockIndex = i % 2 == 0 ? random.nextInt(Math.max(1, blacklistSize)) : random.nextInt(allBlocks.size());
+            states[i] = allBlocks.get(blockIndex).defaultBlockState();
+            biomes[i] = BenchmarkWorld.biome(i % 2 == 0 ? random.nextInt(Math.max(1, blacklistSize)) : blacklistSize + i);
+        }
+    }
+
+    @Benchmark
+    public boolean isBlockBlacklisted() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return profile.isBlockBlacklisted(states[index]);
+    }
+
+    @Benchmark
+    public boolean isBiomeBlacklisted() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return profile.isBiomeBlacklisted(biomes[index]);
+    }
+}
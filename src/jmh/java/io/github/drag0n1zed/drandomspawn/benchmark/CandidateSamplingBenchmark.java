@@ -0,0 +1,82 @@
+package io.github.drag0n1zed.drandomspawn.benchmark;
+
+import io.github.drag0n1zed.drandomspawn.search.CandidateGenerator;
+import io.github.drag0n1zed.drandomspawn.search.SearchAreaShape;
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of drawing one candidate column in the search area, for each shape and candidate generator.
+ * The rejection baseline is the loop the mod used before the generators; it slows down as minDistance approaches maxDistance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateSamplingBenchmark {
+
+    // minDistance:maxDistance
+    @Param({"1:10000", "5000:10000", "9000:10000", "9900:10000"})
+    public String bounds;
+
+    @Param({"SQUARE", "CIRCLE"})
+    public SearchAreaShape shape;
+
+    @Param({"RANDOM", "R2", "HALTON", "CHUNK_ALIGNED"})
+    public CandidateGenerator.Type generatorType;
+
+    private int minDistance;
+    private int maxDistance;
+    private SearchProfile profile;
+    private CandidateGenerator generator;
+    private final Random random = new Random(42);
+    private final BlockPos.MutableBlockPos candidate = new BlockPos.MutableBlockPos();
+
+    @Setup
+    public void setup() {
+        BenchmarkWorld.bootstrap();
+        String[] parts = bounds.split(":");
+        minDistance = Integer.parseInt(parts[0]);
+        maxDistance = Integer.parseInt(parts[1]);
+        profile = BenchmarkWorld.areaProfile(minDistance, maxDistance, shape, generatorType);
+        generator = CandidateGenerator.get(Level.OVERWORLD, generatorType);
+    }
+
+    @Benchmark
+    public long nextCandidate() {
+        generator.next(BlockPos.ZERO, profile, candidate);
+        return candidate.asLong();
+    }
+
+    /**
+     * The old rejection loop over the outer square. Only meaningful for the square shape; it ignores the generator.
+     */
+    @Benchmark
+    public long rejectionBaseline() {
+        int dx;
+        int dz;
+        do {
+            dx = random.nextInt(-maxDistance, maxDistance + 1);
+            dz = random.nextInt(-maxDistance, maxDistance + 1);
+        } while (Math.abs(dx) < minDistance && Math.abs(dz) < minDistance);
+        candidate.set(dx, 0, dz);
+        return candidate.asLong();
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.drag0n1zed.drandomspawn.benchmark;
+
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import io.github.drag0n1zed.drandomspawn.search.SpawnColumnView;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearch;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of findSafeSpawnLocation on one column of synthetic terrain: random heights around sea level,
+ * a mix of safe and blacklisted ground, some covered columns, and a world border cutting off part of the area.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafetyCheckBenchmark {
+
+    private static final int SIZE = 64;
+
+    @Param({"0", "10", "200"})
+    public int blacklistSize;
+
+    private SearchProfile profile;
+    private SyntheticTerrain terrain;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkWorld.bootstrap();
+        profile = BenchmarkWorld.profile(0, 10000, blacklistSize, 0);
+        terrain = new SyntheticTerrain(new Random(42), blacklistSize);
+    }
+
+    @Benchmark
+    public BlockPos findSafeSpawnLocation() {
+        index = (index + 1) & (SIZE * SIZE - 1);
+        return SpawnSearch.findSafeSpawnLocation(terrain, index % SIZE, index / SIZE, profile);
+    }
+
+    /**
+     * A SIZE x SIZE area of single-block-thick terrain columns.
+     */
+    private static final class SyntheticTerrain implements SpawnColumnView {
+        private static final BlockState[] GROUND = {
+                Blocks.GRASS_BLOCK.defaultBlockState(),
+                Blocks.STONE.defaultBlockState(),
+                Blocks.SAND.defaultBlockState(),
+                Blocks.LAVA.defaultBlockState(),
+                Blocks.MAGMA_BLOCK.defaultBlockState()
+        };
+        // Columns past this x are outside the world border.
+        private static final int BORDER_X = SIZE - 8;
+
+        private final int[] heights = new int[SIZE * SIZE];
+        private final BlockState[] ground = new BlockState[SIZE * SIZE];
+        private final boolean[] covered = new boolean[SIZE * SIZE];
+        private final Holder<Biome>[] biomes;
+
+        @SuppressWarnings("unchecked")
+        private SyntheticTerrain(Random random, int blacklistedBiomeCount) {
+            biomes = new Holder[SIZE * SIZE];
+            Holder<Biome>[] palette = new Holder[8];
+            for (int i = 0; i < palette.length; i++) {
+                // One in four biomes of the palette is blacklisted, if there is a blacklist.
+                palette[i] = BenchmarkWorld.biome(i % 4 == 0 && blacklistedBiomeCount > 0 ? 0 : blacklistedBiomeCount + i);
+            }
+            for (int i = 0; i < SIZE * SIZE; i++) {
+                heights[i] = 50 + random.nextInt(40);
+                ground[i] = GROUND[random.nextInt(GROUND.length)];
+                covered[i] = random.nextInt(8) == 0;
+                biomes[i] = palette[random.nextInt(palette.length)];
+            }
+        }
+
+        @Override
+        public int getSurfaceHeight(int x, int z) {
+            return heights[z * SIZE + x];
+        }
+
+        @Override
+        public boolean isWithinWorldBorder(BlockPos pos) {
+            return pos.getX() < BORDER_X;
+        }
+
+        @Override
+        public Holder<Biome> getBiome(BlockPos pos) {
+            return biomes[pos.getZ() * SIZE + pos.getX()];
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            int column = pos.getZ() * SIZE + pos.getX();
+            int height = heights[column];
+            if (pos.getY() == height) {
+                return ground[column];
+            }
+            if (pos.getY() == height + 2 && covered[column]) {
+                return Blocks.OAK_LEAVES.defaultBlockState();
+            }
+            return pos.getY() > height ? Blocks.AIR.defaultBlockState() : Blocks.STONE.defaultBlockState();
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package io.github.drag0n1zed.drandomspawn;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.authlib.GameProfile;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.metrics.Histogram;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.GameType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A headless load test of the spawn flows, run by the loadTestServer run configuration and never shipped in the mod jar.
+ * Once the server has started, it connects simulated players through in-memory connections, so they are in the player list
+ * like real ones. Joining fires the login event, which starts the first join search; each player who got a spawn is then killed,
+ * which starts the death warm-up, and respawned, which runs the respawn at their saved spawn. Both flows run for all players
+ * at once, under the spectator lock if it is enabled. The test measures how long each flow took and how the server ticked,
+ * checks where the players ended up, writes a JSON report and stops the server.
+ * It does not cover the network: packets sent to the simulated players are dropped, and no client loads any chunk.
+ * Does nothing unless the drandomspawn.loadtest.players system property is set.
+ */
+@Mod.EventBusSubscriber(modid = RandomSpawn.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+final class SpawnLoadTest {
+
+    private static final String PLAYERS_PROPERTY = "drandomspawn.loadtest.players";
+    private static final String REPORT_PROPERTY = "drandomspawn.loadtest.report";
+    private static final String TIMEOUT_PROPERTY = "drandomspawn.loadtest.timeoutSeconds";
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    // The running test, or null. Main thread only.
+    private static SpawnLoadTest running;
+
+    private final MinecraftServer server;
+    private final int playerCount;
+    private final Path reportPath;
+    private final long deadlineNanos;
+    private final long startNanos = System.nanoTime();
+    private final List<UUID> players = new ArrayList<>();
+    private final Phase firstJoin = new Phase();
+    private final Phase respawn = new Phase();
+    private final Histogram tickNanos = new Histogram();
+    private long tickStartNanos;
+
+    /**
+     * The outcome of one flow for every simulated player.
+     */
+    private static final class Phase {
+        private final Histogram timeToTeleportNanos = new Histogram();
+        private int found;
+        private int notFound;
+        private int failed;
+        private int notStarted;
+        // Checked once the flow is over: players standing at their saved spawn, and players left in spectator mode.
+        private int arrived;
+        private int stillLocked;
+
+        /**
+         * Follows the search the event just started for the player, if it started one.
+         */
+        private CompletableFuture<BlockPos> record(UUID uuid, long requestNanos) {
+            CompletableFuture<BlockPos> flow = RandomSpawn.getInFlightSearch(uuid);
+            if (flow == null) {
+                notStarted++;
+                return CompletableFuture.completedFuture(null);
+            }
+            return flow.whenComplete((pos, throwable) -> {
+                timeToTeleportNanos.record(System.nanoTime() - requestNanos);
+                if (throwable != null) {
+                    failed++;
+                } else if (pos != null) {
+                    found++;
+                } else {
+                    notFound++;
+                }
+            });
+        }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("found", found);
+            json.addProperty("not_found", notFound);
+            json.addProperty("failed", failed);
+            json.addProperty("not_started", notStarted);
+            json.addProperty("arrived", arrived);
+            json.addProperty("still_locked", stillLocked);
+            json.add("time_to_teleport_ms", millis(timeToTeleportNanos));
+            return json;
+        }
+    }
+
+    private SpawnLoadTest(MinecraftServer server, int playerCount, Path reportPath, long timeoutSeconds) {
+        this.server = server;
+        this.playerCount = playerCount;
+        this.reportPath = reportPath;
+        this.deadlineNanos = startNanos + timeoutSeconds * 1_000_000_000L;
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        String players = System.getProperty(PLAYERS_PROPERTY);
+        if (players == null) {
+            return;
+        }
+        running = new SpawnLoadTest(
+                event.getServer(),
+                Integer.parseInt(players),
+                Paths.get(System.getProperty(REPORT_PROPERTY, "drandomspawn-loadtest.json")),
+                Long.getLong(TIMEOUT_PROPERTY, 600)
+        );
+        running.start();
+    }
+
+    /**
+     * Measures every server tick while the test runs, including the end-of-tick task drain, and stops a test that hangs.
+     */
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onTickStart(TickEvent.ServerTickEvent event) {
+        if (running != null && event.phase == TickEvent.Phase.START) {
+            running.tickStartNanos = System.nanoTime();
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onTickEnd(TickEvent.ServerTickEvent event) {
+        if (running == null || event.phase != TickEvent.Phase.END || running.tickStartNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        running.tickNanos.record(now - running.tickStartNanos);
+        if (now - running.deadlineNanos >= 0) {
+            RandomSpawn.LOGGER.error("[dRandomSpawn] Load test timed out; writing a partial report.");
+            running.finish(true);
+        }
+    }
+
+    // --- Private Helper Methods ---
+
+    private void start() {
+        RandomSpawn.LOGGER.info("[dRandomSpawn] Starting load test with {} simulated players.", playerCount);
+        SpawnMetrics.reset();
+
+        List<CompletableFuture<BlockPos>> joins = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            String name = "loadtest-" + i;
+            UUID uuid = UUID.nameUUIDFromBytes(("drandomspawn:" + name).getBytes(StandardCharsets.UTF_8));
+            players.add(uuid);
+            long requestNanos = System.nanoTime();
+            connect(new GameProfile(uuid, name));
+            joins.add(firstJoin.record(uuid, requestNanos));
+        }
+
+        // Every flow completes on the main thread. The stages below are queued behind it,
+        // so they run after the teleports that depend on the same futures.
+        CompletableFuture.allOf(joins.toArray(CompletableFuture[]::new))
+                .handleAsync((ignored, throwable) -> {
+                    checkPlayers(firstJoin);
+                    return startRespawns();
+                }, RandomSpawn.MAIN_THREAD)
+                .thenCompose(Function.identity())
+                .handleAsync((ignored, throwable) -> {
+                    checkPlayers(respawn);
+                    finish(false);
+                    return null;
+                }, RandomSpawn.MAIN_THREAD);
+    }
+
+    /**
+     * Joins a simulated player through an in-memory connection, the way the game test framework does.
+     * Placing the player fires the login event. Outgoing packets are dropped instead of piling up in the channel.
+     */
+    private void connect(GameProfile profile) {
+        ServerPlayer player = new ServerPlayer(server, server.overworld(), profile);
+        Connection connection = new Connection(PacketFlow.SERVERBOUND);
+        EmbeddedChannel channel = new EmbeddedChannel(connection);
+        channel.pipeline().addFirst(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) {
+                ReferenceCountUtil.release(message);
+                promise.setSuccess();
+            }
+        });
+        server.getPlayerList().placeNewPlayer(connection, player);
+    }
+
+    /**
+     * Kills and respawns every simulated player who got a spawn in the first phase, as after a death without a bed.
+     * The death starts the warm-up of their saved spawn, and the respawn event teleports them there.
+     */
+    private CompletableFuture<Void> startRespawns() {
+        if (running != this) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<BlockPos>> respawns = new ArrayList<>();
+        for (UUID uuid : players) {
+            ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+            if (player == null || SpawnPointsData.get(server).get(uuid) == null) {
+                continue;
+            }
+            long requestNanos = System.nanoTime();
+            player.kill();
+            server.getPlayerList().respawn(player, false);
+            respawns.add(respawn.record(uuid, requestNanos));
+        }
+        return CompletableFuture.allOf(respawns.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Counts the players standing on the column of their saved spawn, in its dimension, and those still in spectator mode.
+     */
+    private void checkPlayers(Phase phase) {
+        SpawnPointsData spawnPoints = SpawnPointsData.get(server);
+        for (UUID uuid : players) {
+            ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+            if (player == null) {
+                continue;
+            }
+            BlockPos spawnPos = spawnPoints.get(uuid);
+            ResourceKey<Level> dimension = spawnPoints.getDimension(uuid);
+            if (spawnPos != null && player.serverLevel().dimension() == dimension
+                    && player.getBlockX() == spawnPos.getX() && player.getBlockZ() == spawnPos.getZ()) {
+                phase.arrived++;
+            }
+            if (player.gameMode.getGameModeForPlayer() == GameType.SPECTATOR) {
+                phase.stillLocked++;
+            }
+        }
+    }
+
+    private void finish(boolean timedOut) {
+        if (running != this) {
+            return;
+        }
+        running = null;
+
+        // Flushes the generated chunks to disk, so the region files show how much the test generated.
+        server.saveEverything(true, true, true);
+        JsonObject report = buildReport(timedOut);
+        try {
+            Files.writeString(reportPath, new GsonBuilder().setPrettyPrinting().create().toJson(report) + "\n", StandardCharsets.UTF_8);
+            RandomSpawn.LOGGER.info("[dRandomSpawn] Load test report written to {}.", reportPath.toAbsolutePath());
+        } catch (IOException e) {
+            RandomSpawn.LOGGER.error("[dRandomSpawn] Failed to write the load test report to {}.", reportPath.toAbsolutePath(), e);
+        }
+        server.halt(false);
+    }
+
+    /**
+     * Builds the report. Keys are always written in the same order, so reports of two versions can be diffed.
+     */
+    private JsonObject buildReport(boolean timedOut) {
+        JsonObject report = new JsonObject();
+        report.addProperty("mod_version", ModList.get().getModContainerById(RandomSpawn.MODID)
+                .map(container -> container.getModInfo().getVersion().toString()).orElse("unknown"));
+        report.addProperty("minecraft_version", SharedConstants.getCurrentVersion().getName());
+        report.addProperty("seed", server.getWorldData().worldGenOptions().seed());
+        report.addProperty("players", playerCount);
+        report.addProperty("timed_out", timedOut);
+        report.addProperty("duration_ms", (System.nanoTime() - startNanos) / NANOS_PER_MILLI);
+
+        JsonObject settings = new JsonObject();
+        settings.addProperty("min_distance", RandomSpawnConfig.minDistance.get());
+        settings.addProperty("max_distance", RandomSpawnConfig.maxDistance.get());
+        settings.addProperty("max_tries", RandomSpawnConfig.maxTries.get());
+        settings.addProperty("probe_fan_out", RandomSpawnConfig.probeFanOut.get());
+        settings.addProperty("probe_chunk_status", RandomSpawnConfig.probeChunkStatus.get().name());
+        settings.addProperty("candidate_generator", RandomSpawnConfig.candidateGenerator.get().name());
+        settings.addProperty("search_area_shape", RandomSpawnConfig.searchAreaShape.get().name());
+        settings.addProperty("warmup_radius", RandomSpawnConfig.warmupRadius.get());
+        settings.addProperty("sector_map_angles", RandomSpawnConfig.sectorMapAngles.get());
+        settings.addProperty("sector_map_bands", RandomSpawnConfig.sectorMapBands.get());
+        settings.addProperty("sector_map_exploration_floor", RandomSpawnConfig.sectorMapExplorationFloor.get());
+        settings.addProperty("spawn_pool_size", RandomSpawnConfig.spawnPoolSize.get());
+        settings.addProperty("search_worker_threads", RandomSpawnConfig.searchWorkerThreads.get());
+        report.add("settings", settings);
+
+        JsonObject coverage = new JsonObject();
+        coverage.addProperty("players", "in-memory connections, in the player list");
+        coverage.addProperty("first_join", "login event");
+        coverage.addProperty("respawn", "death event and player list respawn");
+        coverage.addProperty("spectator_lock", RandomSpawnConfig.useSpectatorLock.get());
+        coverage.addProperty("not_covered", "network, packets and client chunk loading");
+        report.add("coverage", coverage);
+
+        report.add("first_join", firstJoin.toJson());
+        report.add("respawn", respawn.toJson());
+
+        JsonObject attempts = new JsonObject();
+        Histogram attemptsPerSearch = SpawnMetrics.getAttemptsPerSearch();
+        attempts.addProperty("searches", attemptsPerSearch.getCount());
+        attempts.addProperty("mean", round(attemptsPerSearch.getMean()));
+        attempts.addProperty("p50", attemptsPerSearch.getPercentile(0.50));
+        attempts.addProperty("p95", attemptsPerSearch.getPercentile(0.95));
+        attempts.addProperty("p99", attemptsPerSearch.getPercentile(0.99));
+        attempts.addProperty("max", attemptsPerSearch.getMax());
+        report.add("attempts_per_search", attempts);
+
+        JsonObject chunks = new JsonObject();
+        chunks.addProperty("partial_probes", SpawnMetrics.getPartialProbeCount());
+        chunks.addProperty("full_probes", SpawnMetrics.getFullProbeCount());
+        chunks.addProperty("promoted", SpawnMetrics.getPromotedCount());
+        chunks.addProperty("region_file_bytes", regionFileBytes());
+        report.add("chunks", chunks);
+
+        JsonObject ticks = millis(tickNanos);
+        ticks.addProperty("count", tickNanos.getCount());
+        report.add("tick_ms", ticks);
+        return report;
+    }
+
+    /**
+     * Returns the total size of the world's region files, in every dimension.
+     */
+    private long regionFileBytes() {
+        try (Stream<Path> files = Files.walk(server.getWorldPath(LevelResource.ROOT))) {
+            return files.filter(path -> path.toString().endsWith(".mca"))
+                    .mapToLong(path -> {
+                        try {
+                            return Files.size(path);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .sum();
+        } catch (IOException | UncheckedIOException e) {
+            RandomSpawn.LOGGER.warn("[dRandomSpawn] Could not measure the region files of the load test world.", e);
+            return -1;
+        }
+    }
+
+    private static JsonObject millis(Histogram nanos) {
+        JsonObject json = new JsonObject();
+        json.addProperty("p50", round((double) nanos.getPercentile(0.50) / NANOS_PER_MILLI));
+        json.addProperty("p95", round((double) nanos.getPercentile(0.95) / NANOS_PER_MILLI));
+        json.addProperty("p99", round((double) nanos.getPercentile(0.99) / NANOS_PER_MILLI));
+        json.addProperty("max", round((double) nanos.getMax() / NANOS_PER_MILLI));
+        return json;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -1,32 +1,55 @@
 package io.github.drag0n1zed.drandomspawn;
 
 import com.mojang.logging.LogUtils;
+import io.github.drag0n1zed.drandomspawn.command.BatchTeleport;
 import io.github.drag0n1zed.drandomspawn.command.ModCommands;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPoolData;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnTeleportEvent;
+import io.github.drag0n1zed.drandomspawn.search.DestinationWarmup;
+import io.github.drag0n1zed.drandomspawn.search.RejectedChunkCache;
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import io.github.drag0n1zed.drandomspawn.search.SectorSuccessMap;
+import io.github.drag0n1zed.drandomspawn.search.SpawnPool;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearch;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearchExecutor;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.GameType;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.config.ModConfigEvent;
-import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraft.world.effect.MobEffects;
 import org.slf4j.Logger;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Queue;
-import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.function.Consumer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @Mod(RandomSpawn.MODID)
 @Mod.EventBusSubscriber(modid = RandomSpawn.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
@@ -44,6 +67,29 @@ public class RandomSpawn {
     // A thread-safe queue to hold tasks that need to be run on the main server thread.
     private static final Queue<Runnable> mainThreadExecutionQueue = new ConcurrentLinkedQueue<>();
 
+    // Tracked separately because ConcurrentLinkedQueue.size() walks the whole queue.
+    private static final AtomicInteger mainThreadQueueDepth = new AtomicInteger();
+
+    // Runs tasks on the main server thread at the end of a tick, within the tick budget. Used to complete search futures.
+    public static final Executor MAIN_THREAD = task -> {
+        mainThreadExecutionQueue.add(task);
+        mainThreadQueueDepth.incrementAndGet();
+    };
+
+    // Main-thread drain instrumentation, only written on the server thread.
+    private static volatile long lastDrainNanos;
+    private static volatile int lastDrainTaskCount;
+    private static final LongAdder budgetExhaustedTicks = new LongAdder();
+
+    // Searches in flight, by player. A player waits for at most one search; later requests share it. Main thread only.
+    private static final Map<UUID, InFlightSearch> inFlightSearches = new HashMap<>();
+    // Warm-ups of saved spawn points started when their player died, by player. Completed from chunk loading threads.
+    private static final Map<UUID, CompletableFuture<Void>> deathWarmups = new ConcurrentHashMap<>();
+    // Players under the spectator lock, by player. Main thread only.
+    private static final Map<UUID, SpectatorLock> spectatorLocks = new HashMap<>();
+    private static final LongAdder coalescedRequestCount = new LongAdder();
+    private static final LongAdder cancelledSearchCount = new LongAdder();
+
     // Enum to distinguish spawn reasons for message customization and logic branching.
     private enum SpawnReason {
         FIRST_JOIN,
@@ -61,7 +107,7 @@ public class RandomSpawn {
         ModCommands.register(event.getDispatcher());
     }
 
-    // Checks config validity
+    // Checks config validity and compiles it into the search profile
     @Mod.EventBusSubscriber(modid = MODID, bus = Mod.EventBusSubscriber.Bus.MOD)
     public static class ModEventBusEvents {
         @SubscribeEvent
@@ -81,21 +127,82 @@ public class RandomSpawn {
                     throw new IllegalStateException(errorMessage);
                 }
 
+                SearchProfile.publish(SearchProfile.compile());
                 LOGGER.info("dRandomSpawn config loaded successfully.");
             }
         }
+
+        @SubscribeEvent
+        public static void onConfigReload(final ModConfigEvent.Reloading event) {
+            if (event.getConfig().getSpec() == RandomSpawnConfig.CONFIG_SPEC) {
+                int min = RandomSpawnConfig.minDistance.get();
+                int max = RandomSpawnConfig.maxDistance.get();
+
+                if (min > max) {
+                    // Crashing a running server over a live edit is worse than keeping the last good settings.
+                    LOGGER.error("[dRandomSpawn] 'minDistance' ({}) cannot be greater than 'maxDistance' ({}). Keeping the previous settings.",
+                            min, max);
+                    return;
+                }
+
+                SearchProfile.publish(SearchProfile.compile());
+                LOGGER.info("dRandomSpawn config reloaded.");
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        SpawnSearchExecutor.start();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        // Players are saved after this event, so their gamemodes must be restored now.
+        Set<UUID> players = new HashSet<>(inFlightSearches.keySet());
+        players.addAll(spectatorLocks.keySet());
+        players.addAll(deathWarmups.keySet());
+        for (UUID uuid : players) {
+            cancelPlayerSearch(event.getServer(), uuid);
+        }
+        BatchTeleport.clearAll();
+        SpawnSearchExecutor.shutdown();
+        // Dimension keys are shared by every world opened in this game session, so cached chunks must not outlive the server.
+        RejectedChunkCache.clearAll();
+        SectorSuccessMap.clearAll();
     }
 
     /**
      * Executes tasks from other threads on the main server thread at the end of each tick.
      * This prevents concurrent modification issues with Minecraft's game state.
+     * Tasks run in submission order until the tick budget is used up; the rest carry over to the next tick.
+     * Keeping the order means each player's tasks still run in the order they were queued.
      */
     @SubscribeEvent
     public static void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase == TickEvent.Phase.END) {
-            while (!mainThreadExecutionQueue.isEmpty()) {
-                mainThreadExecutionQueue.poll().run();
+            long startNanos = System.nanoTime();
+            long deadlineNanos = startNanos + RandomSpawnConfig.mainThreadTaskBudgetNanos.get();
+            int taskCount = 0;
+
+            // Always runs at least one task, so a tiny budget cannot stall the queue.
+            Runnable task;
+            while ((task = mainThreadExecutionQueue.poll()) != null) {
+                mainThreadQueueDepth.decrementAndGet();
+                task.run();
+                taskCount++;
+                if (System.nanoTime() - deadlineNanos >= 0) {
+                    break;
+                }
             }
+
+            lastDrainNanos = System.nanoTime() - startNanos;
+            lastDrainTaskCount = taskCount;
+            if (!mainThreadExecutionQueue.isEmpty()) {
+                budgetExhaustedTicks.increment();
+            }
+            SpawnPool.tick(event.getServer());
+            BatchTeleport.tick();
         }
     }
 
@@ -105,14 +212,46 @@ public class RandomSpawn {
             return;
         }
 
-        CompoundTag playerPersistedData = player.getPersistentData().getCompound(Player.PERSISTED_NBT_TAG);
+        SpawnPointsData spawnPoints = SpawnPointsData.get(player.server);
+        migrateNbtSpawn(player, spawnPoints);
 
         // Only runs if the player has no saved spawn point from this mod.
-        if (!playerPersistedData.contains(NBT_KEY_SPAWN_X)) {
+        if (spawnPoints.get(player.getUUID()) == null) {
             initiatePlayerSpawn(player, SpawnReason.FIRST_JOIN);
         }
     }
 
+    /**
+     * Cancels the player's search and lifts their spectator lock. The player is saved right after this event,
+     * so they do not rejoin stuck in spectator mode.
+     */
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) {
+            return;
+        }
+        cancelPlayerSearch(player.server, player.getUUID());
+    }
+
+    /**
+     * Starts loading the saved spawn point of a player who will respawn there, while the death screen is shown.
+     * Runs last, so deaths cancelled by other mods are skipped. Logging out or the server stopping cancels the warm-up.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onLivingDeath(LivingDeathEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player) || player.getRespawnPosition() != null) {
+            return;
+        }
+        final UUID uuid = player.getUUID();
+        BlockPos spawnPos = SpawnPointsData.get(player.server).get(uuid);
+        if (spawnPos != null) {
+            CompletableFuture<Void> warmup = DestinationWarmup.warmUp(getSpawnLevel(player.server, uuid), spawnPos,
+                    RandomSpawnConfig.warmupRadius.get());
+            deathWarmups.put(uuid, warmup);
+            warmup.whenComplete((ignored, throwable) -> deathWarmups.remove(uuid, warmup));
+        }
+    }
+
     @SubscribeEvent
     public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) {
@@ -121,10 +260,8 @@ public class RandomSpawn {
 
         // Checks if the player respawned without a specific respawn position (bed/anchor).
         if (player.getRespawnPosition() == null) {
-            CompoundTag playerPersistedData = player.getPersistentData().getCompound(Player.PERSISTED_NBT_TAG);
-
             // If the player has a custom spawn point from this mod, use that.
-            if (playerPersistedData.contains(NBT_KEY_SPAWN_X)) {
+            if (SpawnPointsData.get(player.server).get(player.getUUID()) != null) {
                 initiatePlayerSpawn(player, SpawnReason.RESPAWN_EXISTING_SPAWN);
             } else {
                 // Player has no bed/anchor AND no custom spawn point from this mod. Searches for a new one.
@@ -136,95 +273,212 @@ public class RandomSpawn {
     // --- Public Helper Methods ---
 
     /**
-     * Asynchronously finds a safe random location and executes a callback with the result.
-     * The search is performed on a separate thread to avoid freezing the server.
-     * The success/fail actions are run safely on the main server thread.
+     * Asynchronously finds a safe random location for the player.
+     * The search is performed on the spawn search executor to avoid freezing the server.
+     * The returned future completes on the main server thread, so dependent stages may touch game state.
      * This method also handles changing the player's gamemode to spectator,
      * gives the player a darkness effect, and eventually revert back
      * if ModConfig.useSpectatorLock is enabled.
+     * A player has at most one search in flight: while it runs, further requests for the same player
+     * get its future instead of starting another search. Must be called on the main server thread.
      *
-     * @param player    The player to teleport.
-     * @param onSuccess A Consumer to run on success, accepting the found BlockPos.
-     * @param onFail    A Runnable to run on failure.
+     * @param player The player to teleport.
+     * @return A future completing with the found BlockPos, or with null if no safe location was found.
+     * Completes exceptionally with a SpawnSearchRejectedException if the search could not be scheduled,
+     * or with a CancellationException if the player logged out or the server stopped first.
      */
-    public static void findSafeSpawnAndTeleportAsync(ServerPlayer player, Consumer<BlockPos> onSuccess, Runnable onFail) {
-        final GameType originalGamemode = player.gameMode.getGameModeForPlayer();
+    public static CompletableFuture<BlockPos> findSafeSpawnAndTeleportAsync(ServerPlayer player) {
+        final UUID uuid = player.getUUID();
+        InFlightSearch inFlight = inFlightSearches.get(uuid);
+        if (inFlight != null) {
+            coalescedRequestCount.increment();
+            return inFlight.result();
+        }
+
+        final long requestNanos = System.nanoTime();
+        final SpawnTeleportEvent event = new SpawnTeleportEvent();
+        event.begin();
+        final Runnable restoreGamemode = applySpectatorLock(player);
+
+        final ServerLevel world = player.serverLevel();
+        final BlockPos centerPos = world.getSharedSpawnPos();
+        final SpawnPoolData pool = SpawnPoolData.get(world);
+        final SearchProfile profile = SearchProfile.current();
+        final SpawnPointsData spawnPoints = SpawnPointsData.get(player.server);
+        SectorSuccessMap.prepare(world, centerPos, profile);
+
+        // Takes a pre-validated point from the spawn pool first, and only searches live once the pool is empty.
+        CompletableFuture<BlockPos> search = SpawnSearchExecutor.submit(
+                () -> SpawnSearchExecutor.thenComposeCancellable(
+                        SpawnPool.take(world, pool, centerPos, profile, spawnPoints),
+                        pooledPos -> pooledPos != null
+                                ? CompletableFuture.completedFuture(pooledPos)
+                                : SpawnSearch.search(world, centerPos, profile, spawnPoints))
+        );
+
+        // Loads the destination's surroundings while the player is still locked, so they never land in unloaded chunks.
+        final int warmupRadius = RandomSpawnConfig.warmupRadius.get();
+        CompletableFuture<BlockPos> warmedUp = SpawnSearchExecutor.thenComposeCancellable(search,
+                foundPos -> foundPos == null
+                        ? CompletableFuture.completedFuture(null)
+                        : DestinationWarmup.warmUp(world, foundPos, warmupRadius).thenApply(ignored -> foundPos));
+
+        // Lifts the spectator lock on the main thread before any dependent stage runs.
+        CompletableFuture<BlockPos> result = warmedUp.whenCompleteAsync((foundPos, throwable) -> {
+            restoreGamemode.run();
+            if (warmedUp.isCancelled()) {
+                return;
+            }
+            SpawnMetrics.recordTimeToTeleport(System.nanoTime() - requestNanos);
+            if (event.shouldCommit()) {
+                event.player = player.getGameProfile().getName();
+                event.found = foundPos != null;
+                event.commit();
+            }
+        }, MAIN_THREAD);
 
-        if (RandomSpawnConfig.useSpectatorLock.get()) {
-            mainThreadExecutionQueue.add(() -> {
-                player.setGameMode(GameType.SPECTATOR);
-                player.addEffect(new MobEffectInstance(MobEffects.DARKNESS, 1000000, 0,
+        InFlightSearch registered = new InFlightSearch(warmedUp, result);
+        inFlightSearches.put(uuid, registered);
+        result.whenComplete((foundPos, throwable) -> inFlightSearches.remove(uuid, registered));
+        return result;
+    }
+
+    /**
+     * Registers a search started elsewhere, such as by a batch teleport, as the player's search in flight,
+     * so later requests for the player share it and logging out cancels it. Must be called on the main server thread.
+     *
+     * @return false if the player already has a search in flight, in which case nothing is registered.
+     */
+    public static boolean registerInFlightSearch(UUID uuid, CompletableFuture<BlockPos> search) {
+        if (inFlightSearches.containsKey(uuid)) {
+            return false;
+        }
+        InFlightSearch registered = new InFlightSearch(search, search);
+        inFlightSearches.put(uuid, registered);
+        search.whenComplete((foundPos, throwable) -> inFlightSearches.remove(uuid, registered));
+        return true;
+    }
+
+    /**
+     * Puts the player into spectator mode with a darkness effect while a spawn is searched,
+     * if ModConfig.useSpectatorLock is enabled. The lock is applied on the main thread at the end of the tick.
+     * Locks taken for the same player share one original gamemode, which is restored once the last of them is lifted,
+     * so overlapping requests never restore spectator mode as if it were the player's own. Must be called on the main server thread.
+     *
+     * @param player The player to lock.
+     * @return An action that lifts the lock and restores the original gamemode. Must run on the main server thread.
+     * Running it more than once has no further effect.
+     */
+    public static Runnable applySpectatorLock(ServerPlayer player) {
+        if (!RandomSpawnConfig.useSpectatorLock.get()) {
+            return () -> {
+            };
+        }
+        final UUID uuid = player.getUUID();
+        final MinecraftServer server = player.server;
+
+        SpectatorLock lock = spectatorLocks.get(uuid);
+        if (lock == null) {
+            final SpectatorLock newLock = new SpectatorLock(player.gameMode.getGameModeForPlayer());
+            spectatorLocks.put(uuid, newLock);
+            lock = newLock;
+
+            MAIN_THREAD.execute(() -> {
+                // Looked up again, since the player may have respawned as a new entity in the meantime.
+                ServerPlayer lockedPlayer = server.getPlayerList().getPlayer(uuid);
+                if (newLock.lifted || lockedPlayer == null) {
+                    return;
+                }
+                lockedPlayer.setGameMode(GameType.SPECTATOR);
+                lockedPlayer.addEffect(new MobEffectInstance(MobEffects.DARKNESS, 1000000, 0,
                         false, false, false)
                 );
             });
         }
+        lock.holders++;
 
-        Consumer<BlockPos> wrappedOnSuccess = (foundPos) -> {
-            if (RandomSpawnConfig.useSpectatorLock.get()) {
-                player.removeEffect(MobEffects.DARKNESS);
-                player.setGameMode(originalGamemode);
+        final SpectatorLock heldLock = lock;
+        final boolean[] released = {false};
+        return () -> {
+            if (released[0]) {
+                return;
             }
-            onSuccess.accept(foundPos);
-        };
-
-        Runnable wrappedOnFail = () -> {
-            if (RandomSpawnConfig.useSpectatorLock.get()) {
-                player.removeEffect(MobEffects.DARKNESS);
-                player.setGameMode(originalGamemode);
+            released[0] = true;
+            if (--heldLock.holders == 0) {
+                liftSpectatorLock(server, uuid, heldLock);
             }
-            onFail.run();
         };
+    }
 
+    /**
+     * Returns how many players have a search in flight.
+     */
+    public static int getInFlightSearchCount() {
+        return inFlightSearches.size();
+    }
 
-        new Thread(() -> {
-            int minDistance = RandomSpawnConfig.minDistance.get();
-            int maxDistance = RandomSpawnConfig.maxDistance.get();
-            int maxAttempts = RandomSpawnConfig.maxTries.get();
-
-            Level world = player.level();
-            BlockPos centerPos = world.getSharedSpawnPos();
-            Random random = new Random();
-            BlockPos foundPos = null;
+    /**
+     * Returns the future of the player's search in flight, or null if they have none. Used by the load test,
+     * which follows the searches the spawn events start. Must be called on the main server thread.
+     */
+    static CompletableFuture<BlockPos> getInFlightSearch(UUID uuid) {
+        InFlightSearch inFlight = inFlightSearches.get(uuid);
+        return inFlight != null ? inFlight.result() : null;
+    }
 
-            for (int attempt = 0; attempt < maxAttempts; attempt++) {
-                int dx;
-                int dz;
+    /**
+     * Returns how many spawn requests were given the search already running for their player instead of a new one.
+     */
+    public static long getCoalescedRequestCount() {
+        return coalescedRequestCount.sum();
+    }
 
-                // Loop: Finds a GEOMETRICALLY valid point in the "donut".
-                do {
-                    // Generate a random offset within the outer square.
-                    dx = random.nextInt(-maxDistance, maxDistance + 1);
-                    dz = random.nextInt(-maxDistance, maxDistance + 1);
+    /**
+     * Returns how many searches were cancelled because their player logged out or the server stopped.
+     */
+    public static long getCancelledSearchCount() {
+        return cancelledSearchCount.sum();
+    }
 
-                    // If the point is outside the inner "forbidden" square, it's a valid candidate.
-                    // If either axis is outside the minDistance, the point cannot be in the central forbidden square.
-                    // Otherwise, the point was too close to the center; the while loop runs again.
-                } while (Math.abs(dx) < minDistance && Math.abs(dz) < minDistance);
+    /**
+     * Returns how many tasks are waiting to run on the main server thread.
+     */
+    public static int getMainThreadQueueDepth() {
+        return mainThreadQueueDepth.get();
+    }
 
-                // See if it's safe in the world
-                BlockPos finalCoords = centerPos.offset(dx, 0, dz);
-                BlockPos teleportPos = findSafeSpawnLocation(world, finalCoords.getX(), finalCoords.getZ());
+    /**
+     * Returns how long the last end-of-tick drain took, in nanoseconds.
+     */
+    public static long getLastDrainNanos() {
+        return lastDrainNanos;
+    }
 
-                if (teleportPos != null) {
-                    foundPos = teleportPos;
-                    break; // Success
-                }
-                // If failure, reset outer loop
-            }
+    public static int getLastDrainTaskCount() {
+        return lastDrainTaskCount;
+    }
 
-            final BlockPos finalPos = foundPos;
-            if (finalPos != null) {
-                mainThreadExecutionQueue.add(() -> wrappedOnSuccess.accept(finalPos));
-            } else {
-                mainThreadExecutionQueue.add(wrappedOnFail);
-            }
-        }).start();
+    /**
+     * Returns how many ticks ended with tasks left over because the budget was used up.
+     */
+    public static long getBudgetExhaustedTicks() {
+        return budgetExhaustedTicks.sum();
     }
 
     /**
-     * Saves the player's new spawn coordinates to their NBT data.
+     * Records the player's new spawn coordinates in the central spawn store, in the level the player is in,
+     * and also saves them to their NBT data so older versions of the mod still find them.
      */
     public static void savePlayerSpawn(ServerPlayer player, BlockPos pos) {
+        savePlayerSpawn(player, player.serverLevel().dimension(), pos);
+    }
+
+    /**
+     * Records the player's new spawn coordinates in the given dimension, like {@link #savePlayerSpawn(ServerPlayer, BlockPos)}.
+     */
+    public static void savePlayerSpawn(ServerPlayer player, ResourceKey<Level> dimension, BlockPos pos) {
+        SpawnPointsData.get(player.server).put(player.getUUID(), dimension, pos);
+
         CompoundTag playerData = player.getPersistentData();
         CompoundTag data = playerData.contains(Player.PERSISTED_NBT_TAG) ?
                 playerData.getCompound(Player.PERSISTED_NBT_TAG) : new CompoundTag();
@@ -236,6 +490,69 @@ public class RandomSpawn {
 
     // --- Private Helper Methods ---
 
+    /**
+     * Cancels the player's search, if any, and lifts their spectator lock right away.
+     */
+    private static void cancelPlayerSearch(MinecraftServer server, UUID uuid) {
+        InFlightSearch inFlight = inFlightSearches.remove(uuid);
+        if (inFlight != null && inFlight.search().cancel(false)) {
+            cancelledSearchCount.increment();
+        }
+        CompletableFuture<Void> deathWarmup = deathWarmups.remove(uuid);
+        if (deathWarmup != null) {
+            deathWarmup.cancel(false);
+        }
+        SpectatorLock lock = spectatorLocks.get(uuid);
+        if (lock != null) {
+            liftSpectatorLock(server, uuid, lock);
+        }
+    }
+
+    /**
+     * Removes the darkness effect and restores the gamemode the player had before the lock. Does nothing if the lock is already lifted.
+     */
+    private static void liftSpectatorLock(MinecraftServer server, UUID uuid, SpectatorLock lock) {
+        if (lock.lifted) {
+            return;
+        }
+        lock.lifted = true;
+        spectatorLocks.remove(uuid, lock);
+
+        ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+        if (player != null) {
+            player.removeEffect(MobEffects.DARKNESS);
+            player.setGameMode(lock.originalGamemode);
+        }
+    }
+
+    /**
+     * Returns the level the player's saved spawn point lies in, or the overworld if that dimension no longer exists.
+     */
+    private static ServerLevel getSpawnLevel(MinecraftServer server, UUID uuid) {
+        ResourceKey<Level> dimension = SpawnPointsData.get(server).getDimension(uuid);
+        ServerLevel level = dimension != null ? server.getLevel(dimension) : null;
+        return level != null ? level : server.overworld();
+    }
+
+    /**
+     * Copies a spawn point saved in the player's NBT by an older version into the central spawn store.
+     * A spawn already in the store wins, since the store is written first. Older versions always spawned players in the overworld.
+     */
+    private static void migrateNbtSpawn(ServerPlayer player, SpawnPointsData spawnPoints) {
+        CompoundTag playerPersistedData = player.getPersistentData().getCompound(Player.PERSISTED_NBT_TAG);
+        if (!playerPersistedData.contains(NBT_KEY_SPAWN_X)) {
+            return;
+        }
+        BlockPos pos = new BlockPos(
+                playerPersistedData.getInt(NBT_KEY_SPAWN_X),
+                playerPersistedData.getInt(NBT_KEY_SPAWN_Y),
+                playerPersistedData.getInt(NBT_KEY_SPAWN_Z)
+        );
+        if (spawnPoints.putIfAbsent(player.getUUID(), Level.OVERWORLD, pos)) {
+            LOGGER.info("Migrated the saved spawn point of {} to the central spawn store.", player.getGameProfile().getName());
+        }
+    }
+
     /**
      * Handles the logic for a player's initial spawn or respawn when no bed/anchor is set.
      * This method decides whether to use an existing custom spawn or search for a new one.
@@ -244,77 +561,115 @@ public class RandomSpawn {
      * @param reason The reason for triggering this spawn logic (FIRST_JOIN, RESPAWN_NEW_SPAWN, RESPAWN_EXISTING_SPAWN).
      */
     private static void initiatePlayerSpawn(ServerPlayer player, SpawnReason reason) {
-        CompoundTag playerPersistedData = player.getPersistentData().getCompound(Player.PERSISTED_NBT_TAG);
-
         if (reason == SpawnReason.RESPAWN_EXISTING_SPAWN) {
-            double x = playerPersistedData.getInt(NBT_KEY_SPAWN_X) + 0.5;
-            double y = playerPersistedData.getInt(NBT_KEY_SPAWN_Y);
-            double z = playerPersistedData.getInt(NBT_KEY_SPAWN_Z) + 0.5;
-            player.teleportTo(x, y, z);
-            player.sendSystemMessage(Component.translatable("info.drandomspawn.death.success"));
+            respawnAtSavedSpawn(player);
         } else {
             player.sendSystemMessage(Component.translatable("info.drandomspawn.random_teleport.start"));
 
-            Consumer<BlockPos> onSuccess = (foundPos) -> {
-                player.teleportTo(foundPos.getX() + 0.5, foundPos.getY(), foundPos.getZ() + 0.5);
-                savePlayerSpawn(player, foundPos);
-
-                Component successMessage;
-                if (reason == SpawnReason.FIRST_JOIN) {
-                    successMessage = Component.translatable("info.drandomspawn.join.success");
-                } else {
-                    successMessage = Component.translatable("info.drandomspawn.random_teleport.success");
+            final UUID uuid = player.getUUID();
+            final MinecraftServer server = player.server;
+            findSafeSpawnAndTeleportAsync(player).whenComplete((foundPos, throwable) -> {
+                // Looked up again, since the player may have respawned as a new entity or logged out during the search.
+                ServerPlayer currentPlayer = server.getPlayerList().getPlayer(uuid);
+                if (currentPlayer != null) {
+                    handleSearchResult(currentPlayer, reason, foundPos, throwable);
                 }
-                player.sendSystemMessage(successMessage);
-            };
-
-            Runnable onFail = () -> {
-
-                Component failMessage;
-                if (reason == SpawnReason.FIRST_JOIN) {
-                    failMessage = Component.translatable("info.drandomspawn.join.fail");
-                } else {
-                    failMessage = Component.translatable("info.drandomspawn.random_teleport.fail");
-                }
-                player.sendSystemMessage(failMessage);
-            };
-
-            findSafeSpawnAndTeleportAsync(player, onSuccess, onFail);
+            });
         }
     }
 
-    private static BlockPos findSafeSpawnLocation(Level world, int x, int z) {
-        BlockPos.MutableBlockPos testPos = new BlockPos.MutableBlockPos(x, 0, z);
-        world.getChunkAt(testPos);
-        BlockPos hmPos = world.getHeightmapPos(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, testPos);
-        BlockPos groundPos = hmPos.below();
-        BlockPos playerFeetPos = hmPos;
-        BlockPos playerHeadPos = hmPos.above();
-        String biomeId = world.getBiome(groundPos).unwrapKey().map(key -> key.location().toString()).orElse("");
-
-        boolean isWithinWorldBorder = world.getWorldBorder().isWithinBounds(groundPos);
-        boolean isAboveGroundLevel = playerFeetPos.getY() > 63;
-        boolean isBiomeAllowed = !isBiomeBlacklisted(biomeId);
-
-        if (isWithinWorldBorder && isAboveGroundLevel && isBiomeAllowed) {
-            Block groundBlock = world.getBlockState(groundPos).getBlock();
-            String groundBlockId = ForgeRegistries.BLOCKS.getKey(groundBlock).toString();
+    /**
+     * Teleports a respawned player to their saved spawn point, in the dimension it lies in, once its surroundings are loaded.
+     * The player is held under the spectator lock while they wait, and the wait counts as their search in flight,
+     * so logging out cancels it and a random teleport already running for them is shared instead.
+     */
+    private static void respawnAtSavedSpawn(ServerPlayer player) {
+        final UUID uuid = player.getUUID();
+        if (inFlightSearches.containsKey(uuid)) {
+            coalescedRequestCount.increment();
+            return;
+        }
 
-            boolean isGroundSolidAndAllowed = !world.getBlockState(groundPos).isAir() && !isBlockBlacklisted(groundBlockId);
-            boolean isPlayerSpaceClear = world.getBlockState(playerFeetPos).isAir() && world.getBlockState(playerHeadPos).isAir();
+        final MinecraftServer server = player.server;
+        final BlockPos spawnPos = SpawnPointsData.get(server).get(uuid);
+        final ServerLevel spawnLevel = getSpawnLevel(server, uuid);
+        final Runnable restoreGamemode = applySpectatorLock(player);
+        // The warm-up started on death is taken over by this one, which refreshes its ticket.
+        deathWarmups.remove(uuid);
+
+        // Usually already loaded by the warm-up started when the player died.
+        CompletableFuture<Void> warmup = DestinationWarmup.warmUp(spawnLevel, spawnPos, RandomSpawnConfig.warmupRadius.get());
+        CompletableFuture<BlockPos> result = warmup.handleAsync((ignored, throwable) -> {
+            restoreGamemode.run();
+            // Looked up again, since the player may have logged out or respawned again in the meantime.
+            ServerPlayer currentPlayer = server.getPlayerList().getPlayer(uuid);
+            if (warmup.isCancelled() || currentPlayer == null) {
+                return null;
+            }
+            if (throwable != null) {
+                // The teleport loads whatever the warm-up did not, on the main thread.
+                LOGGER.warn("Could not load the spawn point of {} ahead of time.", currentPlayer.getGameProfile().getName(), throwable);
+            }
+            currentPlayer.teleportTo(spawnLevel, spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5,
+                    currentPlayer.getYRot(), currentPlayer.getXRot());
+            currentPlayer.sendSystemMessage(Component.translatable("info.drandomspawn.death.success"));
+            return spawnPos;
+        }, MAIN_THREAD);
+
+        InFlightSearch registered = new InFlightSearch(warmup, result);
+        inFlightSearches.put(uuid, registered);
+        result.whenComplete((foundPos, throwable) -> inFlightSearches.remove(uuid, registered));
+    }
 
-            if (isGroundSolidAndAllowed && isPlayerSpaceClear) {
-                return playerFeetPos;
+    /**
+     * Teleports the player to the position found for them, if any, and tells them how the search went.
+     */
+    private static void handleSearchResult(ServerPlayer player, SpawnReason reason, BlockPos foundPos, Throwable throwable) {
+        if (foundPos != null) {
+            player.teleportTo(foundPos.getX() + 0.5, foundPos.getY(), foundPos.getZ() + 0.5);
+            savePlayerSpawn(player, foundPos);
+
+            Component successMessage;
+            if (reason == SpawnReason.FIRST_JOIN) {
+                successMessage = Component.translatable("info.drandomspawn.join.success");
+            } else {
+                successMessage = Component.translatable("info.drandomspawn.random_teleport.success");
             }
+            player.sendSystemMessage(successMessage);
+            return;
+        }
+        if (throwable != null && SpawnSearchExecutor.isCancellation(throwable)) {
+            // The server is stopping; the player is about to be disconnected.
+            return;
         }
-        return null;
+
+        Component failMessage;
+        if (throwable != null && SpawnSearchExecutor.isRejection(throwable)) {
+            failMessage = Component.translatable("info.drandomspawn.random_teleport.busy");
+        } else if (reason == SpawnReason.FIRST_JOIN) {
+            failMessage = Component.translatable("info.drandomspawn.join.fail");
+        } else {
+            failMessage = Component.translatable("info.drandomspawn.random_teleport.fail");
+        }
+        player.sendSystemMessage(failMessage);
     }
 
-    private static boolean isBiomeBlacklisted(String biomeId) {
-        return RandomSpawnConfig.biomeBlacklist.get().contains(biomeId);
+    /**
+     * A player's search, kept with the future handed to callers so later requests can share it.
+     */
+    private record InFlightSearch(CompletableFuture<BlockPos> search, CompletableFuture<BlockPos> result) {
     }
 
-    private static boolean isBlockBlacklisted(String blockId) {
-        return RandomSpawnConfig.blockBlacklist.get().contains(blockId);
+    /**
+     * The spectator lock of one player, shared by every request that holds it.
+     */
+    private static final class SpectatorLock {
+        private final GameType originalGamemode;
+        private int holders;
+        private boolean lifted;
+
+        private SpectatorLock(GameType originalGamemode) {
+            this.originalGamemode = originalGamemode;
+        }
     }
 }
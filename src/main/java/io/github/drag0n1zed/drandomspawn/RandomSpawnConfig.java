@@ -1,5 +1,9 @@
 package io.github.drag0n1zed.drandomspawn;
 
+import io.github.drag0n1zed.drandomspawn.search.CandidateGenerator;
+import io.github.drag0n1zed.drandomspawn.search.ChunkProbe;
+import io.github.drag0n1zed.drandomspawn.search.SearchAreaShape;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearchExecutor;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.ModLoadingContext;
 
@@ -12,9 +16,34 @@ public class RandomSpawnConfig {
     public static ForgeConfigSpec.IntValue maxDistance;
     public static ForgeConfigSpec.IntValue minDistance;
     public static ForgeConfigSpec.IntValue maxTries;
+    public static ForgeConfigSpec.IntValue probeFanOut;
+    public static ForgeConfigSpec.EnumValue<SearchAreaShape> searchAreaShape;
+    public static ForgeConfigSpec.EnumValue<CandidateGenerator.Type> candidateGenerator;
     public static ForgeConfigSpec.ConfigValue<List<? extends String>> biomeBlacklist;
     public static ForgeConfigSpec.ConfigValue<List<? extends String>> blockBlacklist;
     public static ForgeConfigSpec.BooleanValue useSpectatorLock;
+    public static ForgeConfigSpec.IntValue warmupRadius;
+    public static ForgeConfigSpec.BooleanValue useBiomePrefilter;
+    public static ForgeConfigSpec.EnumValue<ChunkProbe.ProbeStatus> probeChunkStatus;
+    public static ForgeConfigSpec.ConfigValue<Integer> probeColumnsPerChunk;
+    public static ForgeConfigSpec.IntValue rejectedChunkCacheSize;
+    public static ForgeConfigSpec.IntValue minSpawnSeparation;
+    public static ForgeConfigSpec.ConfigValue<List<? extends String>> verticalScanDimensions;
+    public static ForgeConfigSpec.IntValue sectorMapAngles;
+    public static ForgeConfigSpec.IntValue sectorMapBands;
+    public static ForgeConfigSpec.DoubleValue sectorMapExplorationFloor;
+    public static ForgeConfigSpec.LongValue mainThreadTaskBudgetNanos;
+    public static ForgeConfigSpec.IntValue searchWorkerThreads;
+    public static ForgeConfigSpec.IntValue maxConcurrentSearches;
+    public static ForgeConfigSpec.IntValue searchQueueCapacity;
+    public static ForgeConfigSpec.EnumValue<SpawnSearchExecutor.OverflowPolicy> searchOverflowPolicy;
+    public static ForgeConfigSpec.IntValue searchOverflowQueueLimit;
+    public static ForgeConfigSpec.IntValue batchMinSpacing;
+    public static ForgeConfigSpec.IntValue batchWaveSize;
+    public static ForgeConfigSpec.IntValue batchWaveIntervalTicks;
+    public static ForgeConfigSpec.IntValue spawnPoolSize;
+    public static ForgeConfigSpec.DoubleValue spawnPoolMaxTickTime;
+    public static ForgeConfigSpec.ConfigValue<List<? extends String>> spawnPoolDimensions;
 
     static {
         CONFIG_BUILDER.push("dRandomSpawn Config");
@@ -46,10 +75,43 @@ public class RandomSpawnConfig {
                 )
                 .defineInRange("maxTries", 50, 1, 100);
 
+        probeFanOut = CONFIG_BUILDER
+                .comment(
+                        "How many candidates a search probes at the same time. The search ends on the first safe one,",
+                        "and the probes still loading are cancelled and release their chunks. All probes count towards maxTries.",
+                        "Higher values cut the wait on seeds where most candidates fail, at the cost of up to this many chunk loads per search.",
+                        "Default:",
+                        "probeFanOut = 1"
+                )
+                .defineInRange("probeFanOut", 1, 1, 16);
+
+        searchAreaShape = CONFIG_BUILDER
+                .comment(
+                        "The shape of the area between minDistance and maxDistance that spawns are picked from.",
+                        "SQUARE: a square ring, at least minDistance from the world spawn on one axis and at most maxDistance on both.",
+                        "CIRCLE: a circular ring, between minDistance and maxDistance from the world spawn.",
+                        "Default:",
+                        "searchAreaShape = \"SQUARE\""
+                )
+                .defineEnum("searchAreaShape", SearchAreaShape.SQUARE);
+
+        candidateGenerator = CONFIG_BUILDER
+                .comment(
+                        "How the points tried by a search are spread over the search area.",
+                        "RANDOM: independent uniform random points.",
+                        "R2: the R2 low-discrepancy sequence. Consecutive searches cover the area evenly instead of retrying near each other.",
+                        "HALTON: the Halton low-discrepancy sequence.",
+                        "CHUNK_ALIGNED: random points moved to the center of their chunk.",
+                        "Default:",
+                        "candidateGenerator = \"RANDOM\""
+                )
+                .defineEnum("candidateGenerator", CandidateGenerator.Type.RANDOM);
+
         biomeBlacklist = CONFIG_BUILDER
                 .comment(
                         "A list of biomes where new players are not allowed to spawn.",
                         "Entries must be valid biome resource locations, e.g., 'minecraft:ocean' or 'biomesoplenty:wasteland'.",
+                        "Biome tags are supported with a leading '#', e.g., '#minecraft:is_ocean'.",
                         "Default: ",
                         "biomeBlacklist = []"
                 )
@@ -61,6 +123,7 @@ public class RandomSpawnConfig {
                         "A list of blocks that players cannot spawn directly on top of.",
                         "This is useful for preventing spawns on dangerous blocks.",
                         "Entries must be valid block resource locations, e.g., 'minecraft:lava'.",
+                        "Block tags are supported with a leading '#', e.g., '#minecraft:fire'.",
                         "Default:",
                         "blockBlacklist = [\"minecraft:water\", \"minecraft:lava\", \"minecraft:magma_block\", \"minecraft:cactus\", \"minecraft:sweet_berry_bush\"]"
                 )
@@ -76,6 +139,220 @@ public class RandomSpawnConfig {
                         "useSpectatorLock = true"
                 )
                 .define("useSpectatorLock", true);
+
+        warmupRadius = CONFIG_BUILDER
+                .comment(
+                        "The radius, in chunks, loaded around a destination before the player is teleported there and the spectator lock is lifted.",
+                        "For respawns at a saved spawn point, loading starts when the player dies, so the death screen hides it.",
+                        "0 loads only the destination chunk.",
+                        "Default:",
+                        "warmupRadius = 2"
+                )
+                .defineInRange("warmupRadius", 2, 0, 8);
+
+        useBiomePrefilter = CONFIG_BUILDER
+                .comment(
+                        "If true, candidates whose biome is in biomeBlacklist are dropped before their chunk is loaded.",
+                        "The biome is predicted from the world generator, so no chunk is generated for rejected candidates.",
+                        "Default:",
+                        "useBiomePrefilter = true"
+                )
+                .define("useBiomePrefilter", true);
+
+        probeChunkStatus = CONFIG_BUILDER
+                .comment(
+                        "How far probed chunks are generated before they are checked.",
+                        "SURFACE: Only terrain, surface blocks, biomes and caves are generated, skipping features and light",
+                        "for the many chunks that are rejected. The chunk a spawn is found in is then fully generated and checked again.",
+                        "Neighbouring chunks are generated up to the earlier stages the caves need.",
+                        "Rejected chunks are still saved to disk in their partial state, and finished if a player ever goes there.",
+                        "FULL: Every probed chunk is fully generated, as in earlier versions.",
+                        "Default:",
+                        "probeChunkStatus = \"SURFACE\""
+                )
+                .defineEnum("probeChunkStatus", ChunkProbe.ProbeStatus.SURFACE);
+
+        probeColumnsPerChunk = CONFIG_BUILDER
+                .comment(
+                        "How many columns of a loaded chunk are checked when its candidate column is not safe.",
+                        "With more than 1, the columns are spread evenly over the chunk and the safe one nearest the candidate is used,",
+                        "so a chunk is not thrown away over a single tree or pond. Must be 1, 4, 16, 64 or 256.",
+                        "Default:",
+                        "probeColumnsPerChunk = 1"
+                )
+                .defineInList("probeColumnsPerChunk", 1, List.of(1, 4, 16, 64, 256));
+
+        rejectedChunkCacheSize = CONFIG_BUILDER
+                .comment(
+                        "How many chunks without a safe column are remembered per dimension, so later searches skip them without loading them.",
+                        "The least recently used chunk is forgotten when the cache is full. The cache is cleared on config reload. Set to 0 to disable.",
+                        "Only chunks whose columns were checked with probeColumnsPerChunk above 1 are remembered, so with the default of 1 the cache stays empty.",
+                        "Default:",
+                        "rejectedChunkCacheSize = 8192"
+                )
+                .defineInRange("rejectedChunkCacheSize", 8192, 0, 1048576);
+
+        minSpawnSeparation = CONFIG_BUILDER
+                .comment(
+                        "The minimum distance, in blocks, between a new random spawn and the spawn of any other player in the same dimension.",
+                        "Set to 0 to allow players to spawn next to each other.",
+                        "Default:",
+                        "minSpawnSeparation = 0"
+                )
+                .defineInRange("minSpawnSeparation", 0, 0, 10000);
+
+        verticalScanDimensions = CONFIG_BUILDER
+                .comment(
+                        "Dimensions searched by walking down each column instead of standing on the surface, with the range the player's feet may be at.",
+                        "Use this for dimensions with a ceiling or deep caves, such as the Nether, where the surface is the roof.",
+                        "Entries have the form 'dimension=minY,maxY', e.g., 'minecraft:the_nether=32,120'.",
+                        "In these dimensions the 'y > 63' rule does not apply; minY takes its place.",
+                        "Players are only placed on blocks that stop movement, never on fire, plants or torches, and not inside fluids or harmful blocks.",
+                        "Default:",
+                        "verticalScanDimensions = [\"minecraft:the_nether=32,120\"]"
+                )
+                .defineList("verticalScanDimensions", List.of("minecraft:the_nether=32,120"),
+                        element -> element instanceof String);
+
+        sectorMapAngles = CONFIG_BUILDER
+                .comment(
+                        "How many angular sectors around the world spawn the search area is cut into to learn where spawns are found.",
+                        "Each sector, one of these times one of sectorMapBands, counts how many of the chunks probed in it were safe,",
+                        "and later searches try fewer candidates in sectors that rarely are, such as open ocean.",
+                        "The map is kept per dimension and starts afresh when the config, the world spawn or the world border changes.",
+                        "Set to 0 to disable it and spread candidates evenly.",
+                        "Default:",
+                        "sectorMapAngles = 16"
+                )
+                .defineInRange("sectorMapAngles", 16, 0, 64);
+
+        sectorMapBands = CONFIG_BUILDER
+                .comment(
+                        "How many rings of equal area between minDistance and maxDistance the sector map cuts the search area into.",
+                        "Default:",
+                        "sectorMapBands = 4"
+                )
+                .defineInRange("sectorMapBands", 4, 1, 16);
+
+        sectorMapExplorationFloor = CONFIG_BUILDER
+                .comment(
+                        "The lowest chance, from 0.0 to 1.0, that a candidate in the least successful sector is tried anyway.",
+                        "Keeps every sector in play, so spawns stay spread out and the map notices sectors that become better.",
+                        "1.0 ignores the map completely.",
+                        "Default:",
+                        "sectorMapExplorationFloor = 0.25"
+                )
+                .defineInRange("sectorMapExplorationFloor", 0.25, 0.0, 1.0);
+
+        mainThreadTaskBudgetNanos = CONFIG_BUILDER
+                .comment(
+                        "How much time, in nanoseconds, finished searches may use on the main server thread each tick.",
+                        "This covers teleports, gamemode switches and saving spawn points. Work left over runs on the next tick.",
+                        "Default:",
+                        "mainThreadTaskBudgetNanos = 2000000"
+                )
+                .defineInRange("mainThreadTaskBudgetNanos", 2_000_000L, 100_000L, 50_000_000L);
+
+        searchWorkerThreads = CONFIG_BUILDER
+                .comment(
+                        "How many background threads run the steps of spawn searches.",
+                        "Chunks are loaded by the server's own chunk system, so searches do not hold these threads while waiting.",
+                        "Takes effect on the next server start.",
+                        "Default:",
+                        "searchWorkerThreads = 2"
+                )
+                .defineInRange("searchWorkerThreads", 2, 1, 16);
+
+        maxConcurrentSearches = CONFIG_BUILDER
+                .comment(
+                        "How many spawn searches can run at the same time. Each running search keeps one candidate chunk loading.",
+                        "Takes effect on the next server start.",
+                        "Default:",
+                        "maxConcurrentSearches = 4"
+                )
+                .defineInRange("maxConcurrentSearches", 4, 1, 256);
+
+        searchQueueCapacity = CONFIG_BUILDER
+                .comment(
+                        "How many spawn searches can wait for a free search slot before searchOverflowPolicy applies.",
+                        "Takes effect on the next server start.",
+                        "Default:",
+                        "searchQueueCapacity = 64"
+                )
+                .defineInRange("searchQueueCapacity", 64, 1, 4096);
+
+        searchOverflowPolicy = CONFIG_BUILDER
+                .comment(
+                        "What to do with a spawn search when the search queue is full.",
+                        "QUEUE: keep the search waiting until the queue has room again, up to searchOverflowQueueLimit searches; beyond that, as REJECT.",
+                        "REJECT: refuse the search and tell the player the server is busy.",
+                        "WORLD_SPAWN: skip the search and leave the player at the default world spawn.",
+                        "Default:",
+                        "searchOverflowPolicy = \"QUEUE\""
+                )
+                .defineEnum("searchOverflowPolicy", SpawnSearchExecutor.OverflowPolicy.QUEUE);
+
+        searchOverflowQueueLimit = CONFIG_BUILDER
+                .comment(
+                        "Under the QUEUE policy, how many spawn searches can wait beyond searchQueueCapacity.",
+                        "Searches past this limit are refused and the player is told the server is busy, so a join storm cannot grow the queue without limit.",
+                        "Takes effect on the next server start.",
+                        "Default:",
+                        "searchOverflowQueueLimit = 1024"
+                )
+                .defineInRange("searchOverflowQueueLimit", 1024, 0, 65536);
+
+        batchMinSpacing = CONFIG_BUILDER
+                .comment(
+                        "When several players are random teleported with one command, the minimum distance, in blocks, between their destinations.",
+                        "Default:",
+                        "batchMinSpacing = 64"
+                )
+                .defineInRange("batchMinSpacing", 64, 0, 10000);
+
+        batchWaveSize = CONFIG_BUILDER
+                .comment(
+                        "When several players are random teleported with one command, how many of them are teleported at once.",
+                        "Default:",
+                        "batchWaveSize = 5"
+                )
+                .defineInRange("batchWaveSize", 5, 1, 100);
+
+        batchWaveIntervalTicks = CONFIG_BUILDER
+                .comment(
+                        "The delay, in ticks, between two waves of a multi-player random teleport.",
+                        "Default:",
+                        "batchWaveIntervalTicks = 10"
+                )
+                .defineInRange("batchWaveIntervalTicks", 10, 0, 1200);
+
+        spawnPoolSize = CONFIG_BUILDER
+                .comment(
+                        "How many safe spawn points to find ahead of time for each pooled dimension.",
+                        "New spawns are taken from this pool first, so players rarely wait for chunk generation.",
+                        "Filling the pool generates chunks in the background, so it is off by default. Set to 0 to disable the pool.",
+                        "Default:",
+                        "spawnPoolSize = 0"
+                )
+                .defineInRange("spawnPoolSize", 0, 0, 1024);
+
+        spawnPoolMaxTickTime = CONFIG_BUILDER
+                .comment(
+                        "The pool is only filled while the average server tick time, in milliseconds, is below this value.",
+                        "Default:",
+                        "spawnPoolMaxTickTime = 25.0"
+                )
+                .defineInRange("spawnPoolMaxTickTime", 25.0, 1.0, 50.0);
+
+        spawnPoolDimensions = CONFIG_BUILDER
+                .comment(
+                        "The dimensions that keep a spawn pool.",
+                        "Entries must be valid dimension resource locations, e.g., 'minecraft:overworld'.",
+                        "Default:",
+                        "spawnPoolDimensions = [\"minecraft:overworld\"]"
+                )
+                .defineList("spawnPoolDimensions", List.of("minecraft:overworld"),
+                        element -> element instanceof String);
         CONFIG_BUILDER.pop();
         CONFIG_SPEC = CONFIG_BUILDER.build();
     }
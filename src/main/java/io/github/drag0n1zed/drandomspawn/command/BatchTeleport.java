@@ -0,0 +1,214 @@
+package io.github.drag0n1zed.drandomspawn.command;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.RandomSpawnConfig;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.search.BatchSpawnPlanner;
+import io.github.drag0n1zed.drandomspawn.search.DestinationWarmup;
+import io.github.drag0n1zed.drandomspawn.search.SearchProfile;
+import io.github.drag0n1zed.drandomspawn.search.SectorSuccessMap;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearchExecutor;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A random teleport for several players at once, started by /drandomspawn random_teleport with a multi-player selector.
+ * Destinations are planned as one batch, then players are teleported in rate-limited waves,
+ * each once the chunks around their destination are loaded.
+ * Each player in a batch counts as having a search in flight, so a single random teleport for them shares the batch,
+ * and players who already have one are left out of the batch.
+ */
+public class BatchTeleport {
+
+    // Batches that are teleporting their players. Only touched on the main server thread.
+    private static final List<BatchTeleport> activeBatches = new ArrayList<>();
+
+    private final CommandSourceStack source;
+    private final ServerLevel level;
+    private final List<UUID> players;
+    private final List<Runnable> restoreGamemodes;
+    // Completes when the player is teleported or left out, and is cancelled if they log out first.
+    private final List<CompletableFuture<BlockPos>> results;
+    private final List<BlockPos> destinations;
+    private final int waveSize;
+    private final int waveIntervalTicks;
+
+    private int nextIndex;
+    // Members of started waves whose destinations are still loading.
+    private int warmingUpCount;
+    private int ticksUntilNextWave;
+    private int teleportedCount;
+    private int failedCount;
+
+    private BatchTeleport(CommandSourceStack source, ServerLevel level, List<UUID> players, List<Runnable> restoreGamemodes,
+                          List<CompletableFuture<BlockPos>> results, List<BlockPos> destinations) {
+        this.source = source;
+        this.level = level;
+        this.players = players;
+        this.restoreGamemodes = restoreGamemodes;
+        this.results = results;
+        this.destinations = destinations;
+        this.waveSize = RandomSpawnConfig.batchWaveSize.get();
+        this.waveIntervalTicks = RandomSpawnConfig.batchWaveIntervalTicks.get();
+    }
+
+    /**
+     * Plans destinations for all players, who must be in the same level, and teleports them once the plan is ready.
+     */
+    public static void start(CommandSourceStack source, ServerLevel level, List<ServerPlayer> players) {
+        List<UUID> members = new ArrayList<>(players.size());
+        List<Runnable> restoreGamemodes = new ArrayList<>(players.size());
+        List<CompletableFuture<BlockPos>> results = new ArrayList<>(players.size());
+        for (ServerPlayer player : players) {
+            CompletableFuture<BlockPos> result = new CompletableFuture<>();
+            if (!RandomSpawn.registerInFlightSearch(player.getUUID(), result)) {
+                // Already being teleported by a search of their own.
+                continue;
+            }
+            members.add(player.getUUID());
+            restoreGamemodes.add(RandomSpawn.applySpectatorLock(player));
+            results.add(result);
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+
+        int count = members.size();
+        source.sendSuccess(() -> Component.translatable("info.drandomspawn.batch.start", count), false);
+
+        BlockPos centerPos = level.getSharedSpawnPos();
+        SearchProfile profile = SearchProfile.current();
+        SpawnPointsData spawnPoints = SpawnPointsData.get(level.getServer());
+        int minSpacing = RandomSpawnConfig.batchMinSpacing.get();
+        int lanes = RandomSpawnConfig.maxConcurrentSearches.get();
+        SectorSuccessMap.prepare(level, centerPos, profile);
+
+        SpawnSearchExecutor.submit(() -> BatchSpawnPlanner.plan(level, centerPos, profile, spawnPoints, count, minSpacing, lanes))
+                .whenCompleteAsync((destinations, throwable) -> {
+                    if (results.stream().allMatch(CompletableFuture::isDone)) {
+                        // Every player logged out, or the server stopped, while the batch was being planned.
+                        restoreGamemodes.forEach(Runnable::run);
+                        return;
+                    }
+                    if (destinations == null) {
+                        restoreGamemodes.forEach(Runnable::run);
+                        results.forEach(result -> result.complete(null));
+                        String key = throwable != null && SpawnSearchExecutor.isRejection(throwable)
+                                ? "info.drandomspawn.batch.busy" : "info.drandomspawn.batch.fail";
+                        source.sendFailure(Component.translatable(key, count));
+                        return;
+                    }
+
+                    BatchTeleport batch = new BatchTeleport(source, level, members, restoreGamemodes, results, destinations);
+                    source.sendSuccess(() -> Component.translatable("info.drandomspawn.batch.planned",
+                            destinations.size(), count, batch.waveSize), false);
+                    activeBatches.add(batch);
+                }, RandomSpawn.MAIN_THREAD);
+    }
+
+    /**
+     * Drops all batches, for when the server stops. Their players' searches are cancelled and their locks lifted by then.
+     */
+    public static void clearAll() {
+        activeBatches.clear();
+    }
+
+    /**
+     * Starts the next wave of every active batch that is due. Called at the end of every server tick.
+     */
+    public static void tick() {
+        Iterator<BatchTeleport> iterator = activeBatches.iterator();
+        while (iterator.hasNext()) {
+            BatchTeleport batch = iterator.next();
+            if (batch.nextIndex < batch.players.size() && batch.ticksUntilNextWave-- <= 0) {
+                batch.startNextWave();
+            }
+            if (batch.isFinished()) {
+                batch.sendSummary();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void startNextWave() {
+        int waveEnd = Math.min(nextIndex + waveSize, players.size());
+        int warmupRadius = RandomSpawnConfig.warmupRadius.get();
+        for (; nextIndex < waveEnd; nextIndex++) {
+            int index = nextIndex;
+            CompletableFuture<BlockPos> result = results.get(index);
+            if (result.isDone() || index >= destinations.size()) {
+                teleport(index, null);
+                continue;
+            }
+
+            // Loads the destination's surroundings while the player is still locked, as a single random teleport does.
+            BlockPos foundPos = destinations.get(index);
+            CompletableFuture<Void> warmup = DestinationWarmup.warmUp(level, foundPos, warmupRadius);
+            // Logging out cancels the player's result, which stops the warm-up.
+            result.whenComplete((pos, throwable) -> {
+                if (result.isCancelled()) {
+                    warmup.cancel(false);
+                }
+            });
+            warmingUpCount++;
+            warmup.whenCompleteAsync((ignored, throwable) -> {
+                warmingUpCount--;
+                teleport(index, foundPos);
+            }, RandomSpawn.MAIN_THREAD);
+        }
+        ticksUntilNextWave = waveIntervalTicks;
+
+        if (nextIndex < players.size()) {
+            source.sendSuccess(() -> Component.translatable("info.drandomspawn.batch.progress",
+                    teleportedCount + failedCount, players.size()), false);
+        }
+    }
+
+    /**
+     * Lifts a member's lock and teleports them to their destination, or leaves them out
+     * if they logged out, died, left the level or have no destination.
+     */
+    private void teleport(int index, BlockPos foundPos) {
+        restoreGamemodes.get(index).run();
+        CompletableFuture<BlockPos> result = results.get(index);
+        // Looked up again, since the player may have logged out or respawned as a new entity since the batch started.
+        ServerPlayer player = level.getServer().getPlayerList().getPlayer(players.get(index));
+        if (result.isDone() || player == null) {
+            result.complete(null);
+            failedCount++;
+            return;
+        }
+
+        // Players who died or left the level are not pulled back into it.
+        if (foundPos == null || !player.isAlive() || player.serverLevel() != level) {
+            player.sendSystemMessage(Component.translatable("info.drandomspawn.random_teleport.fail"));
+            result.complete(null);
+            failedCount++;
+            return;
+        }
+
+        player.teleportTo(foundPos.getX() + 0.5, foundPos.getY(), foundPos.getZ() + 0.5);
+        RandomSpawn.savePlayerSpawn(player, foundPos);
+        player.sendSystemMessage(Component.translatable("info.drandomspawn.random_teleport.success"));
+        result.complete(foundPos);
+        teleportedCount++;
+    }
+
+    private boolean isFinished() {
+        return nextIndex >= players.size() && warmingUpCount == 0;
+    }
+
+    private void sendSummary() {
+        source.sendSuccess(() -> Component.translatable("info.drandomspawn.batch.done",
+                teleportedCount, failedCount), true);
+    }
+}
@@ -1,20 +1,44 @@
 package io.github.drag0n1zed.drandomspawn.command;
 
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.RandomSpawnConfig;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsExport;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPoolData;
+import io.github.drag0n1zed.drandomspawn.metrics.Histogram;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import io.github.drag0n1zed.drandomspawn.search.RejectedChunkCache;
+import io.github.drag0n1zed.drandomspawn.search.SectorSuccessMap;
+import io.github.drag0n1zed.drandomspawn.search.SpawnPool;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearch;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSearchExecutor;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.Util;
 import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.commands.arguments.GameProfileArgument;
 import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
 import net.minecraft.core.BlockPos;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.server.players.GameProfileCache;
 
-import java.util.function.Consumer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class ModCommands {
 
@@ -23,13 +47,13 @@ public class ModCommands {
                 .then(Commands.literal("random_teleport")
                         .requires(source -> source.hasPermission(2))
                         .executes(ModCommands::executeRandomTeleportForSelf)
-                        .then(Commands.argument("target", EntityArgument.player())
-                                .executes(ModCommands::executeRandomTeleportForOther)
+                        .then(Commands.argument("targets", EntityArgument.players())
+                                .executes(ModCommands::executeRandomTeleportForOthers)
                         )
                 )
                 .then(Commands.literal("get_spawn")
                         .executes(ModCommands::getSpawnForSelf)
-                        .then(Commands.argument("target", EntityArgument.player())
+                        .then(Commands.argument("target", GameProfileArgument.gameProfile())
                                 .requires(source -> source.hasPermission(2))
                                 .executes(ModCommands::getSpawnForOther)
                         )
@@ -42,6 +66,34 @@ public class ModCommands {
                                 )
                         )
                 )
+                .then(Commands.literal("pool")
+                        .requires(source -> source.hasPermission(2))
+                        .then(Commands.literal("status")
+                                .executes(ModCommands::showPoolStatus)
+                        )
+                        .then(Commands.literal("fill")
+                                .executes(ModCommands::fillPool)
+                        )
+                        .then(Commands.literal("clear")
+                                .executes(ModCommands::clearPool)
+                        )
+                )
+                .then(Commands.literal("stats")
+                        .requires(source -> source.hasPermission(2))
+                        .executes(ModCommands::showStats)
+                        .then(Commands.literal("reset")
+                                .executes(ModCommands::resetStats)
+                        )
+                )
+                .then(Commands.literal("export")
+                        .requires(source -> source.hasPermission(2))
+                        .then(Commands.literal("csv")
+                                .executes(context -> exportSpawns(context, SpawnPointsExport.Format.CSV))
+                        )
+                        .then(Commands.literal("json")
+                                .executes(context -> exportSpawns(context, SpawnPointsExport.Format.JSON))
+                        )
+                )
         );
     }
 
@@ -51,31 +103,49 @@ public class ModCommands {
         return executeRandomTeleport(context, player);
     }
 
-    private static int executeRandomTeleportForOther(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
-        final ServerPlayer player = EntityArgument.getPlayer(context, "target");
-        return executeRandomTeleport(context, player);
+    /**
+     * Teleports a single target like the self form. Several targets are planned and teleported as one batch per level.
+     */
+    private static int executeRandomTeleportForOthers(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        final Collection<ServerPlayer> players = EntityArgument.getPlayers(context, "targets");
+        if (players.size() == 1) {
+            return executeRandomTeleport(context, players.iterator().next());
+        }
+
+        Map<ServerLevel, List<ServerPlayer>> playersByLevel = new LinkedHashMap<>();
+        for (ServerPlayer player : players) {
+            playersByLevel.computeIfAbsent(player.serverLevel(), level -> new ArrayList<>()).add(player);
+        }
+        playersByLevel.forEach((level, levelPlayers) -> BatchTeleport.start(context.getSource(), level, levelPlayers));
+        return players.size();
     }
 
     /**
      * Executes the random teleport logic for a given player.
-     * This method uses the asynchronous search and provides callbacks for success or failure.
+     * This method uses the asynchronous search and reports success or failure once it completes.
      */
     private static int executeRandomTeleport(CommandContext<CommandSourceStack> context, ServerPlayer player) {
         final CommandSourceStack source = context.getSource();
+        final UUID uuid = player.getUUID();
+        final Component playerName = player.getDisplayName();
 
-        source.sendSuccess(() -> Component.translatable("info.drandomspawn.random_teleport.start.for", player.getDisplayName()), false);
-
-        Consumer<BlockPos> onSuccess = (foundPos) -> {
-            player.teleportTo(foundPos.getX() + 0.5, foundPos.getY(), foundPos.getZ() + 0.5);
-            RandomSpawn.savePlayerSpawn(player, foundPos);
-            source.sendSuccess(() -> Component.translatable("info.drandomspawn.random_teleport.success.for", player.getDisplayName()), true);
-        };
+        source.sendSuccess(() -> Component.translatable("info.drandomspawn.random_teleport.start.for", playerName), false);
 
-        Runnable onFail = () -> {
-            source.sendFailure(Component.translatable("info.drandomspawn.random_teleport.fail.for", player.getDisplayName()));
-        };
-
-        RandomSpawn.findSafeSpawnAndTeleportAsync(player, onSuccess, onFail);
+        RandomSpawn.findSafeSpawnAndTeleportAsync(player).whenComplete((foundPos, throwable) -> {
+            // Looked up again, since the player may have respawned as a new entity or logged out during the search.
+            ServerPlayer currentPlayer = source.getServer().getPlayerList().getPlayer(uuid);
+            if (currentPlayer == null || (throwable != null && SpawnSearchExecutor.isCancellation(throwable))) {
+                source.sendFailure(Component.translatable("info.drandomspawn.random_teleport.cancelled.for", playerName));
+            } else if (foundPos != null) {
+                currentPlayer.teleportTo(foundPos.getX() + 0.5, foundPos.getY(), foundPos.getZ() + 0.5);
+                RandomSpawn.savePlayerSpawn(currentPlayer, foundPos);
+                source.sendSuccess(() -> Component.translatable("info.drandomspawn.random_teleport.success.for", playerName), true);
+            } else if (throwable != null && SpawnSearchExecutor.isRejection(throwable)) {
+                source.sendFailure(Component.translatable("info.drandomspawn.random_teleport.busy.for", playerName));
+            } else {
+                source.sendFailure(Component.translatable("info.drandomspawn.random_teleport.fail.for", playerName));
+            }
+        });
 
         return 1;
     }
@@ -83,30 +153,36 @@ public class ModCommands {
 
     private static int getSpawnForSelf(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
         ServerPlayer player = context.getSource().getPlayerOrException();
-        return getSpawn(context, player);
+        return getSpawn(context, player.getUUID(), player.getDisplayName());
     }
 
+    /**
+     * Looks the targets up by game profile, so players who are offline can be queried as well.
+     */
     private static int getSpawnForOther(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
-        ServerPlayer player = EntityArgument.getPlayer(context, "target");
-        return getSpawn(context, player);
+        Collection<GameProfile> profiles = GameProfileArgument.getGameProfiles(context, "target");
+        for (GameProfile profile : profiles) {
+            getSpawn(context, profile.getId(), Component.literal(profile.getName()));
+        }
+        return profiles.size();
     }
 
     /**
-     * Displays a player's saved spawn point.
+     * Displays a player's saved spawn point from the central spawn store.
      */
-    private static int getSpawn(CommandContext<CommandSourceStack> context, ServerPlayer player) {
+    private static int getSpawn(CommandContext<CommandSourceStack> context, UUID uuid, Component playerName) {
         CommandSourceStack source = context.getSource();
-        CompoundTag data = player.getPersistentData().getCompound(Player.PERSISTED_NBT_TAG);
-        if (data.contains(RandomSpawn.NBT_KEY_SPAWN_X)) {
+        BlockPos spawnPos = SpawnPointsData.get(source.getServer()).get(uuid);
+        if (spawnPos != null) {
             Component message = Component.translatable("info.drandomspawn.get_spawn.success",
-                    player.getDisplayName(),
-                    data.getInt(RandomSpawn.NBT_KEY_SPAWN_X),
-                    data.getInt(RandomSpawn.NBT_KEY_SPAWN_Y),
-                    data.getInt(RandomSpawn.NBT_KEY_SPAWN_Z)
+                    playerName,
+                    spawnPos.getX(),
+                    spawnPos.getY(),
+                    spawnPos.getZ()
             );
             source.sendSuccess(() -> message, false);
         } else {
-            Component message = Component.translatable("info.drandomspawn.get_spawn.fail", player.getDisplayName());
+            Component message = Component.translatable("info.drandomspawn.get_spawn.fail", playerName);
             source.sendFailure(message);
         }
         return 1;
@@ -116,7 +192,8 @@ public class ModCommands {
     private static int setSpawn(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
         ServerPlayer player = EntityArgument.getPlayer(context, "target");
         BlockPos pos = BlockPosArgument.getSpawnablePos(context, "pos");
-        RandomSpawn.savePlayerSpawn(player, pos);
+        // The position is given in the level the command runs in.
+        RandomSpawn.savePlayerSpawn(player, context.getSource().getLevel().dimension(), pos);
 
         Component message = Component.translatable("info.drandomspawn.set_spawn.success",
                 player.getDisplayName(),
@@ -128,4 +205,194 @@ public class ModCommands {
         return 1;
     }
 
+
+    /**
+     * Displays how many spawn points are pooled in each pooled dimension.
+     */
+    private static int showPoolStatus(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        int targetSize = RandomSpawnConfig.spawnPoolSize.get();
+        for (ServerLevel level : SpawnPool.getPoolLevels(source.getServer())) {
+            Component message = Component.translatable("info.drandomspawn.pool.status",
+                    level.dimension().location().toString(),
+                    SpawnPoolData.get(level).size(),
+                    targetSize,
+                    SpawnPool.isFilling(level.dimension()) ? Component.translatable("info.drandomspawn.pool.status.filling") : ""
+            );
+            source.sendSuccess(() -> message, false);
+        }
+        return 1;
+    }
+
+    private static int fillPool(CommandContext<CommandSourceStack> context) {
+        SpawnPool.requestFill(context.getSource().getServer());
+        context.getSource().sendSuccess(() -> Component.translatable("info.drandomspawn.pool.fill"), true);
+        return 1;
+    }
+
+    private static int clearPool(CommandContext<CommandSourceStack> context) {
+        SpawnPool.clear(context.getSource().getServer());
+        context.getSource().sendSuccess(() -> Component.translatable("info.drandomspawn.pool.clear"), true);
+        return 1;
+    }
+
+
+    /**
+     * Writes every saved spawn point to a file in the world folder.
+     * The file is written on an IO thread, which copies the spawn store a page at a time.
+     */
+    private static int exportSpawns(CommandContext<CommandSourceStack> context, SpawnPointsExport.Format format) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        SpawnPointsData spawnPoints = SpawnPointsData.get(server);
+        GameProfileCache profileCache = server.getProfileCache();
+        Path path = SpawnPointsExport.getExportPath(server, format);
+
+        source.sendSuccess(() -> Component.translatable("info.drandomspawn.export.start", spawnPoints.size()), false);
+        CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return SpawnPointsExport.write(spawnPoints, profileCache, format, path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, Util.ioPool())
+                .whenCompleteAsync((count, throwable) -> {
+                    if (throwable != null) {
+                        RandomSpawn.LOGGER.error("Failed to export spawn points to {}", path, throwable);
+                        source.sendFailure(Component.translatable("info.drandomspawn.export.fail", path.toString()));
+                    } else {
+                        source.sendSuccess(() -> Component.translatable("info.drandomspawn.export.success", count, path.toString()), true);
+                    }
+                }, RandomSpawn.MAIN_THREAD);
+        return 1;
+    }
+
+
+    /**
+     * Displays the current state of the spawn search executor.
+     */
+    private static int showStats(CommandContext<CommandSourceStack> context) {
+        Component message = Component.translatable("info.drandomspawn.stats.executor",
+                SpawnSearchExecutor.getActiveCount(),
+                SpawnSearchExecutor.getQueuedCount(),
+                SpawnSearchExecutor.getOverflowQueuedCount(),
+                SpawnSearchExecutor.getCompletedCount(),
+                SpawnSearchExecutor.getSubmittedCount(),
+                SpawnSearchExecutor.getRejectedCount()
+        );
+        context.getSource().sendSuccess(() -> message, false);
+
+        Component playersMessage = Component.translatable("info.drandomspawn.stats.players",
+                RandomSpawn.getInFlightSearchCount(),
+                RandomSpawn.getCoalescedRequestCount(),
+                RandomSpawn.getCancelledSearchCount()
+        );
+        context.getSource().sendSuccess(() -> playersMessage, false);
+
+        Component prefilterMessage = Component.translatable("info.drandomspawn.stats.prefilter",
+                SpawnSearch.getPrefilterRejectedCount(),
+                SpawnSearch.getPrefilterPassedCount(),
+                SpawnSearch.getSeparationRejectedCount()
+        );
+        context.getSource().sendSuccess(() -> prefilterMessage, false);
+
+        Component rejectedCacheMessage = Component.translatable("info.drandomspawn.stats.rejected_cache",
+                RejectedChunkCache.getHitCount(),
+                RejectedChunkCache.getMissCount(),
+                RejectedChunkCache.getTotalSize()
+        );
+        context.getSource().sendSuccess(() -> rejectedCacheMessage, false);
+
+        Component sectorMapMessage = Component.translatable("info.drandomspawn.stats.sector_map",
+                SectorSuccessMap.getOutcomeCount(),
+                SectorSuccessMap.getRedrawCount()
+        );
+        context.getSource().sendSuccess(() -> sectorMapMessage, false);
+
+        Component mainThreadMessage = Component.translatable("info.drandomspawn.stats.main_thread",
+                RandomSpawn.getMainThreadQueueDepth(),
+                RandomSpawn.getLastDrainTaskCount(),
+                RandomSpawn.getLastDrainNanos() / 1000,
+                RandomSpawnConfig.mainThreadTaskBudgetNanos.get() / 1000,
+                RandomSpawn.getBudgetExhaustedTicks()
+        );
+        context.getSource().sendSuccess(() -> mainThreadMessage, false);
+
+        Histogram attempts = SpawnMetrics.getAttemptsPerSearch();
+        Component searchMessage = Component.translatable("info.drandomspawn.stats.searches",
+                SpawnMetrics.getFoundCount(),
+                SpawnMetrics.getSearchCount(),
+                String.format("%.1f", attempts.getMean()),
+                attempts.getPercentile(0.5),
+                attempts.getPercentile(0.95),
+                attempts.getMax(),
+                formatMillis(SpawnMetrics.getSearchNanos().getPercentile(0.5)),
+                formatMillis(SpawnMetrics.getSearchNanos().getPercentile(0.95))
+        );
+        context.getSource().sendSuccess(() -> searchMessage, false);
+
+        context.getSource().sendSuccess(() -> formatLatency("info.drandomspawn.stats.chunk_acquire", SpawnMetrics.getChunkAcquireNanos()), false);
+        context.getSource().sendSuccess(() -> formatLatency("info.drandomspawn.stats.time_to_teleport", SpawnMetrics.getTimeToTeleportNanos()), false);
+        context.getSource().sendSuccess(() -> formatLatency("info.drandomspawn.stats.warmup", SpawnMetrics.getWarmupNanos()), false);
+
+        Component columnScanMessage = Component.translatable("info.drandomspawn.stats.column_scan",
+                SpawnMetrics.getScannedChunkCount(),
+                SpawnMetrics.getCheckedColumnCount(),
+                SpawnMetrics.getRescuedChunkCount()
+        );
+        context.getSource().sendSuccess(() -> columnScanMessage, false);
+
+        Component probeStatusMessage = Component.translatable("info.drandomspawn.stats.probe_status",
+                SpawnMetrics.getPartialProbeCount(),
+                SpawnMetrics.getFullProbeCount(),
+                SpawnMetrics.getPromotedCount(),
+                SpawnMetrics.getPromotionRejectedCount(),
+                SpawnMetrics.getFoundCount() == 0 ? "-" : String.format("%.1f", (double) SpawnMetrics.getFullProbeCount() / SpawnMetrics.getFoundCount())
+        );
+        context.getSource().sendSuccess(() -> probeStatusMessage, false);
+
+        Component fanOutMessage = Component.translatable("info.drandomspawn.stats.fan_out",
+                RandomSpawnConfig.probeFanOut.get(),
+                SpawnSearch.getCancelledProbeCount()
+        );
+        context.getSource().sendSuccess(() -> fanOutMessage, false);
+
+        Component rejectionMessage = Component.translatable("info.drandomspawn.stats.rejections",
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.WORLD_BORDER),
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.BELOW_GROUND_LEVEL),
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.BIOME),
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.BLOCK),
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.NO_SPACE),
+                SpawnMetrics.getRejectionCount(SpawnMetrics.Rejection.CHUNK_UNAVAILABLE)
+        );
+        context.getSource().sendSuccess(() -> rejectionMessage, false);
+        return 1;
+    }
+
+    /**
+     * Clears the search metrics and pre-filter counters. Executor counters cover the server's lifetime and are kept.
+     */
+    private static int resetStats(CommandContext<CommandSourceStack> context) {
+        SpawnMetrics.reset();
+        SpawnSearch.resetCounters();
+        RejectedChunkCache.resetCounters();
+        SectorSuccessMap.resetCounters();
+        context.getSource().sendSuccess(() -> Component.translatable("info.drandomspawn.stats.reset"), true);
+        return 1;
+    }
+
+    private static Component formatLatency(String key, Histogram nanos) {
+        return Component.translatable(key,
+                nanos.getCount(),
+                formatMillis(nanos.getPercentile(0.5)),
+                formatMillis(nanos.getPercentile(0.95)),
+                formatMillis(nanos.getPercentile(0.99)),
+                formatMillis(nanos.getMax())
+        );
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
 }
@@ -0,0 +1,207 @@
+package io.github.drag0n1zed.drandomspawn.data;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.search.SpawnSpatialIndex;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Every spawn point assigned by the mod, server-wide and keyed by player UUID, with the dimension it lies in
+ * and a spatial index per dimension so new spawns can keep their distance.
+ * This is the central store the mod reads spawns from; the per-player NBT is still written so older versions keep working.
+ * Stored with the overworld, loaded on first use and only written back when something changed.
+ * Queried from search threads, so every method is synchronized.
+ */
+public class SpawnPointsData extends SavedData {
+
+    private static final String DATA_NAME = RandomSpawn.MODID + "_spawn_points";
+    // Packed as UUID most significant bits, UUID least significant bits and block position, three longs per spawn.
+    private static final String TAG_SPAWNS = "spawns";
+    private static final int LONGS_PER_SPAWN = 3;
+    // The dimension of each spawn, in the same order. Kept apart so older versions can still read the spawns.
+    // Spawns saved without one are in the overworld.
+    private static final String TAG_DIMENSIONS = "dimensions";
+
+    // The grids are rebuilt when the separation distance changes, so this is only the size used until the first query.
+    private static final int DEFAULT_CELL_SIZE = 64;
+
+    private final Object2LongOpenHashMap<UUID> spawns = new Object2LongOpenHashMap<>();
+    private final Map<UUID, ResourceKey<Level>> dimensions = new HashMap<>();
+    private final Map<ResourceKey<Level>, SpawnSpatialIndex> indexes = new HashMap<>();
+    private int cellSize = DEFAULT_CELL_SIZE;
+
+    /**
+     * Returns the server's spawn points, loading them from disk on first use.
+     * Must be called on the main server thread.
+     */
+    public static SpawnPointsData get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(SpawnPointsData::load, SpawnPointsData::new, DATA_NAME);
+    }
+
+    private static SpawnPointsData load(CompoundTag tag) {
+        SpawnPointsData data = new SpawnPointsData();
+        long[] packed = tag.getLongArray(TAG_SPAWNS);
+        ListTag dimensionTags = tag.getList(TAG_DIMENSIONS, Tag.TAG_STRING);
+        for (int i = 0; i + LONGS_PER_SPAWN <= packed.length; i += LONGS_PER_SPAWN) {
+            int spawnIndex = i / LONGS_PER_SPAWN;
+            ResourceKey<Level> dimension = Level.OVERWORLD;
+            if (spawnIndex < dimensionTags.size()) {
+                ResourceLocation location = ResourceLocation.tryParse(dimensionTags.getString(spawnIndex));
+                if (location != null) {
+                    dimension = ResourceKey.create(Registries.DIMENSION, location);
+                }
+            }
+            data.add(new UUID(packed[i], packed[i + 1]), dimension, packed[i + 2]);
+        }
+        return data;
+    }
+
+    @Override
+    public synchronized CompoundTag save(CompoundTag tag) {
+        long[] packed = new long[spawns.size() * LONGS_PER_SPAWN];
+        ListTag dimensionTags = new ListTag();
+        int i = 0;
+        for (Object2LongMap.Entry<UUID> entry : spawns.object2LongEntrySet()) {
+            packed[i++] = entry.getKey().getMostSignificantBits();
+            packed[i++] = entry.getKey().getLeastSignificantBits();
+            packed[i++] = entry.getLongValue();
+            dimensionTags.add(StringTag.valueOf(dimensions.get(entry.getKey()).location().toString()));
+        }
+        tag.putLongArray(TAG_SPAWNS, packed);
+        tag.put(TAG_DIMENSIONS, dimensionTags);
+        return tag;
+    }
+
+    /**
+     * Records a player's spawn point in the given dimension, replacing their previous one.
+     */
+    public synchronized void put(UUID uuid, ResourceKey<Level> dimension, BlockPos pos) {
+        remove(uuid);
+        add(uuid, dimension, pos.asLong());
+        setDirty();
+    }
+
+    /**
+     * Records a player's spawn point unless they already have one. Used to migrate spawns saved in player NBT.
+     *
+     * @return True if the spawn point was added.
+     */
+    public synchronized boolean putIfAbsent(UUID uuid, ResourceKey<Level> dimension, BlockPos pos) {
+        if (spawns.containsKey(uuid)) {
+            return false;
+        }
+        put(uuid, dimension, pos);
+        return true;
+    }
+
+    /**
+     * Returns the player's spawn point, or null if the mod never assigned them one.
+     */
+    public synchronized BlockPos get(UUID uuid) {
+        return spawns.containsKey(uuid) ? BlockPos.of(spawns.getLong(uuid)) : null;
+    }
+
+    /**
+     * Returns the dimension the player's spawn point lies in, or null if the mod never assigned them one.
+     */
+    public synchronized ResourceKey<Level> getDimension(UUID uuid) {
+        return dimensions.get(uuid);
+    }
+
+    public synchronized int size() {
+        return spawns.size();
+    }
+
+    /**
+     * Copies the next spawn points of an export, in player UUID order: at most {@code limit} of them,
+     * all with a UUID after {@code after}, or from the first one if it is null. Paging by UUID keeps each copy small
+     * and the lock short, and a spawn point assigned during an export is included if its UUID comes after the last page.
+     */
+    public synchronized List<ExportedSpawn> exportPage(UUID after, int limit) {
+        // The smallest UUIDs after the cursor, in a max-heap so the largest is dropped when the page is full.
+        PriorityQueue<UUID> page = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        for (UUID uuid : spawns.keySet()) {
+            if (after != null && uuid.compareTo(after) <= 0) {
+                continue;
+            }
+            page.add(uuid);
+            if (page.size() > limit) {
+                page.poll();
+            }
+        }
+
+        List<ExportedSpawn> rows = new ArrayList<>(page.size());
+        for (UUID uuid : page) {
+            rows.add(new ExportedSpawn(uuid, dimensions.get(uuid), BlockPos.of(spawns.getLong(uuid))));
+        }
+        rows.sort(Comparator.comparing(ExportedSpawn::uuid));
+        return rows;
+    }
+
+    /**
+     * Returns true if any spawn point assigned in the dimension is closer than {@code separation} blocks to the column.
+     */
+    public synchronized boolean isNearAssignedSpawn(ResourceKey<Level> dimension, int x, int z, int separation) {
+        if (separation <= 0 || spawns.isEmpty()) {
+            return false;
+        }
+        if (cellSize != separation) {
+            rebuildIndexes(separation);
+        }
+        SpawnSpatialIndex index = indexes.get(dimension);
+        return index != null && index.isNear(x, z, separation);
+    }
+
+    // --- Private Helper Methods ---
+
+    private void add(UUID uuid, ResourceKey<Level> dimension, long packedPos) {
+        spawns.put(uuid, packedPos);
+        dimensions.put(uuid, dimension);
+        indexes.computeIfAbsent(dimension, key -> new SpawnSpatialIndex(cellSize)).add(BlockPos.of(packedPos));
+    }
+
+    private void remove(UUID uuid) {
+        if (!spawns.containsKey(uuid)) {
+            return;
+        }
+        SpawnSpatialIndex index = indexes.get(dimensions.remove(uuid));
+        long packedPos = spawns.removeLong(uuid);
+        if (index != null) {
+            index.remove(BlockPos.of(packedPos));
+        }
+    }
+
+    private void rebuildIndexes(int newCellSize) {
+        cellSize = newCellSize;
+        indexes.clear();
+        for (Object2LongMap.Entry<UUID> entry : spawns.object2LongEntrySet()) {
+            indexes.computeIfAbsent(dimensions.get(entry.getKey()), key -> new SpawnSpatialIndex(cellSize))
+                    .add(BlockPos.of(entry.getLongValue()));
+        }
+    }
+
+    /**
+     * One spawn point of an export.
+     */
+    public record ExportedSpawn(UUID uuid, ResourceKey<Level> dimension, BlockPos pos) {
+    }
+}
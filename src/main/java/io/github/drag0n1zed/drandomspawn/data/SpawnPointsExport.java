@@ -0,0 +1,161 @@
+package io.github.drag0n1zed.drandomspawn.data;
+
+import com.mojang.authlib.GameProfile;
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.players.GameProfileCache;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes every spawn point in {@link SpawnPointsData} to a file in the world folder, one row at a time.
+ * Spawn points are copied out of the store a page at a time and rows are formatted straight into a buffered writer,
+ * so neither the whole store nor the formatted output is ever held in memory at once.
+ */
+public final class SpawnPointsExport {
+
+    // How many spawn points are copied out of the store under its lock at a time.
+    private static final int PAGE_SIZE = 1024;
+
+    public enum Format {
+        CSV("csv"),
+        JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private SpawnPointsExport() {
+    }
+
+    /**
+     * Returns the file an export in the given format is written to.
+     */
+    public static Path getExportPath(MinecraftServer server, Format format) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(RandomSpawn.MODID + "_spawns." + format.extension).normalize();
+    }
+
+    /**
+     * Writes the spawn points to the file, in player UUID order. Runs on an IO thread.
+     * Player names are looked up in the server's profile cache, if there is one, and left empty when unknown.
+     *
+     * @return The number of spawn points written.
+     */
+    public static int write(SpawnPointsData spawnPoints, GameProfileCache profileCache, Format format, Path path) throws IOException {
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(format == Format.CSV ? "uuid,name,dimension,x,y,z" : "[");
+            UUID after = null;
+            List<SpawnPointsData.ExportedSpawn> page;
+            while (!(page = spawnPoints.exportPage(after, PAGE_SIZE)).isEmpty()) {
+                for (SpawnPointsData.ExportedSpawn spawn : page) {
+                    UUID uuid = spawn.uuid();
+                    String name = profileCache != null ? profileCache.get(uuid).map(GameProfile::getName).orElse("") : "";
+
+                    if (format == Format.CSV) {
+                        writer.newLine();
+                        writeCsvRow(writer, uuid, name, spawn.dimension(), spawn.pos());
+                    } else {
+                        writer.write(count == 0 ? "\n  " : ",\n  ");
+                        writeJsonObject(writer, uuid, name, spawn.dimension(), spawn.pos());
+                    }
+                    count++;
+                }
+                after = page.get(page.size() - 1).uuid();
+            }
+            if (format == Format.JSON) {
+                writer.write(count == 0 ? "]" : "\n]");
+            }
+            writer.newLine();
+        }
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, UUID uuid, String name, ResourceKey<Level> dimension, BlockPos pos) throws IOException {
+        writer.write(uuid.toString());
+        writer.write(',');
+        // Offline-mode servers accept names with commas and quotes, so text fields are quoted when needed.
+        writeCsvField(writer, name);
+        writer.write(',');
+        writeCsvField(writer, dimension.location().toString());
+        writer.write(',');
+        writer.write(Integer.toString(pos.getX()));
+        writer.write(',');
+        writer.write(Integer.toString(pos.getY()));
+        writer.write(',');
+        writer.write(Integer.toString(pos.getZ()));
+    }
+
+    private static void writeJsonObject(Writer writer, UUID uuid, String name, ResourceKey<Level> dimension, BlockPos pos) throws IOException {
+        writer.write("{\"uuid\": \"");
+        writer.write(uuid.toString());
+        writer.write("\", \"name\": ");
+        writeJsonString(writer, name);
+        writer.write(", \"dimension\": ");
+        writeJsonString(writer, dimension.location().toString());
+        writer.write(", \"x\": ");
+        writer.write(Integer.toString(pos.getX()));
+        writer.write(", \"y\": ");
+        writer.write(Integer.toString(pos.getY()));
+        writer.write(", \"z\": ");
+        writer.write(Integer.toString(pos.getZ()));
+        writer.write('}');
+    }
+
+    /**
+     * Writes a CSV field as RFC 4180 asks: quoted if it holds a comma, quote or line break, with quotes inside doubled.
+     */
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Writes a quoted JSON string, escaping quotes, backslashes and control characters.
+     */
+    static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
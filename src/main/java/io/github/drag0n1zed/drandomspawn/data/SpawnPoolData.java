@@ -0,0 +1,88 @@
+package io.github.drag0n1zed.drandomspawn.data;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Validated spawn points found ahead of time for one dimension, saved with the world so they survive restarts.
+ * Accessed from both the server thread and search threads, so every method is synchronized.
+ */
+public class SpawnPoolData extends SavedData {
+
+    private static final String DATA_NAME = RandomSpawn.MODID + "_spawn_pool";
+    private static final String TAG_POSITIONS = "positions";
+
+    private final Deque<BlockPos> positions = new ArrayDeque<>();
+
+    /**
+     * Returns the spawn pool of the given dimension, loading it from disk on first use.
+     * Must be called on the main server thread.
+     */
+    public static SpawnPoolData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(SpawnPoolData::load, SpawnPoolData::new, DATA_NAME);
+    }
+
+    private static SpawnPoolData load(CompoundTag tag) {
+        SpawnPoolData data = new SpawnPoolData();
+        for (long packedPos : tag.getLongArray(TAG_POSITIONS)) {
+            data.positions.add(BlockPos.of(packedPos));
+        }
+        return data;
+    }
+
+    @Override
+    public synchronized CompoundTag save(CompoundTag tag) {
+        tag.putLongArray(TAG_POSITIONS, positions.stream().mapToLong(BlockPos::asLong).toArray());
+        return tag;
+    }
+
+    /**
+     * Removes and returns the oldest pooled spawn point, or null if the pool is empty.
+     */
+    public synchronized BlockPos poll() {
+        BlockPos pos = positions.poll();
+        if (pos != null) {
+            setDirty();
+        }
+        return pos;
+    }
+
+    public synchronized void add(BlockPos pos) {
+        positions.add(pos);
+        setDirty();
+    }
+
+    /**
+     * Adds a spawn point unless it is closer than {@code separation} blocks, measured horizontally, to a point already pooled,
+     * so two players given pooled points one after another are kept apart as live searches would keep them.
+     *
+     * @return True if the point was added.
+     */
+    public synchronized boolean addIfSeparated(BlockPos pos, int separation) {
+        long separationSqr = (long) separation * separation;
+        for (BlockPos pooledPos : positions) {
+            long dx = pooledPos.getX() - pos.getX();
+            long dz = pooledPos.getZ() - pos.getZ();
+            if (dx * dx + dz * dz < separationSqr) {
+                return false;
+            }
+        }
+        add(pos);
+        return true;
+    }
+
+    public synchronized int size() {
+        return positions.size();
+    }
+
+    public synchronized void clear() {
+        positions.clear();
+        setDirty();
+    }
+}
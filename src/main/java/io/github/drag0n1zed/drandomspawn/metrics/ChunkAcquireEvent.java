@@ -0,0 +1,35 @@
+package io.github.drag0n1zed.drandomspawn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the wait for a probed chunk, from the request to the chunk future completing.
+ */
+@Name("drandomspawn.ChunkAcquire")
+@Label("Spawn Probe Chunk Acquire")
+@Category("dRandomSpawn")
+@Description("Loading or generating a chunk to probe a spawn candidate")
+@StackTrace(false)
+public class ChunkAcquireEvent extends Event {
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Status")
+    @Description("The generation status the chunk was requested at")
+    public String status;
+
+    @Label("Loaded")
+    public boolean loaded;
+}
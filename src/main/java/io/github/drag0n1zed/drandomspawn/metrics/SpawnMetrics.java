@@ -0,0 +1,202 @@
+package io.github.drag0n1zed.drandomspawn.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the spawn search, shown by /drandomspawn stats.
+ * Every record method is cheap and thread-safe, so it can be called from the server thread and search threads alike.
+ */
+public final class SpawnMetrics {
+
+    /**
+     * The first check a probed column failed, in the order findSafeSpawnLocation runs them.
+     * A chunk checked in several columns counts once, with the reason of the column that got furthest.
+     */
+    public enum Rejection {
+        WORLD_BORDER,
+        BELOW_GROUND_LEVEL,
+        BIOME,
+        BLOCK,
+        NO_SPACE,
+        CHUNK_UNAVAILABLE
+    }
+
+    private static final LongAdder[] rejectionCounts = new LongAdder[Rejection.values().length];
+    private static final LongAdder searchCount = new LongAdder();
+    private static final LongAdder foundCount = new LongAdder();
+    private static final LongAdder scannedChunkCount = new LongAdder();
+    private static final LongAdder checkedColumnCount = new LongAdder();
+    private static final LongAdder rescuedChunkCount = new LongAdder();
+    private static final LongAdder partialProbeCount = new LongAdder();
+    private static final LongAdder fullProbeCount = new LongAdder();
+    private static final LongAdder promotedCount = new LongAdder();
+    private static final LongAdder promotionRejectedCount = new LongAdder();
+    private static final Histogram attemptsPerSearch = new Histogram();
+    private static final Histogram searchNanos = new Histogram();
+    private static final Histogram chunkAcquireNanos = new Histogram();
+    private static final Histogram timeToTeleportNanos = new Histogram();
+    private static final Histogram warmupNanos = new Histogram();
+
+    static {
+        for (int i = 0; i < rejectionCounts.length; i++) {
+            rejectionCounts[i] = new LongAdder();
+        }
+    }
+
+    private SpawnMetrics() {
+    }
+
+    /**
+     * Records a finished live search.
+     *
+     * @param attempts How many candidates the search used, including those dropped by the pre-filters.
+     */
+    public static void recordSearch(int attempts, long nanos, boolean found) {
+        searchCount.increment();
+        if (found) {
+            foundCount.increment();
+        }
+        attemptsPerSearch.record(attempts);
+        searchNanos.record(nanos);
+    }
+
+    /**
+     * Records how long a probed chunk took to become available, from the request to the chunk future completing.
+     */
+    public static void recordChunkAcquire(long nanos) {
+        chunkAcquireNanos.record(nanos);
+    }
+
+    /**
+     * Records the time from a player's spawn request to the moment they can be teleported,
+     * which is also how long they spend in the spectator lock.
+     */
+    public static void recordTimeToTeleport(long nanos) {
+        timeToTeleportNanos.record(nanos);
+    }
+
+    /**
+     * Records how long the chunks around a destination took to load before the player was teleported there.
+     */
+    public static void recordWarmup(long nanos) {
+        warmupNanos.record(nanos);
+    }
+
+    /**
+     * Records the columns checked in one loaded chunk.
+     *
+     * @param rescued True if the candidate column failed but another column of the chunk was safe.
+     */
+    public static void recordColumnScan(int columns, boolean rescued) {
+        scannedChunkCount.increment();
+        checkedColumnCount.add(columns);
+        if (rescued) {
+            rescuedChunkCount.increment();
+        }
+    }
+
+    /**
+     * Records a chunk requested by a probe.
+     *
+     * @param full True if the chunk was requested at full status, false if only up to its surface.
+     */
+    public static void recordProbedChunk(boolean full) {
+        (full ? fullProbeCount : partialProbeCount).increment();
+    }
+
+    /**
+     * Records a spawn found in a partially generated chunk, after the chunk was promoted to full status and checked again.
+     *
+     * @param kept True if a column of the full chunk was still safe.
+     */
+    public static void recordPromotion(boolean kept) {
+        promotedCount.increment();
+        if (!kept) {
+            promotionRejectedCount.increment();
+        }
+    }
+
+    public static void recordRejection(Rejection rejection) {
+        rejectionCounts[rejection.ordinal()].increment();
+    }
+
+    public static long getSearchCount() {
+        return searchCount.sum();
+    }
+
+    public static long getFoundCount() {
+        return foundCount.sum();
+    }
+
+    public static long getScannedChunkCount() {
+        return scannedChunkCount.sum();
+    }
+
+    public static long getCheckedColumnCount() {
+        return checkedColumnCount.sum();
+    }
+
+    public static long getRescuedChunkCount() {
+        return rescuedChunkCount.sum();
+    }
+
+    public static long getPartialProbeCount() {
+        return partialProbeCount.sum();
+    }
+
+    public static long getFullProbeCount() {
+        return fullProbeCount.sum();
+    }
+
+    public static long getPromotedCount() {
+        return promotedCount.sum();
+    }
+
+    public static long getPromotionRejectedCount() {
+        return promotionRejectedCount.sum();
+    }
+
+    public static long getRejectionCount(Rejection rejection) {
+        return rejectionCounts[rejection.ordinal()].sum();
+    }
+
+    public static Histogram getAttemptsPerSearch() {
+        return attemptsPerSearch;
+    }
+
+    public static Histogram getSearchNanos() {
+        return searchNanos;
+    }
+
+    public static Histogram getChunkAcquireNanos() {
+        return chunkAcquireNanos;
+    }
+
+    public static Histogram getTimeToTeleportNanos() {
+        return timeToTeleportNanos;
+    }
+
+    public static Histogram getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    public static void reset() {
+        for (LongAdder rejectionCount : rejectionCounts) {
+            rejectionCount.reset();
+        }
+        searchCount.reset();
+        foundCount.reset();
+        scannedChunkCount.reset();
+        checkedColumnCount.reset();
+        rescuedChunkCount.reset();
+        partialProbeCount.reset();
+        fullProbeCount.reset();
+        promotedCount.reset();
+        promotionRejectedCount.reset();
+        attemptsPerSearch.reset();
+        searchNanos.reset();
+        chunkAcquireNanos.reset();
+        timeToTeleportNanos.reset();
+        warmupNanos.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.drag0n1zed.drandomspawn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one live spawn search, from the first candidate to the result.
+ */
+@Name("drandomspawn.SpawnSearch")
+@Label("Spawn Search")
+@Category("dRandomSpawn")
+@Description("A live search for a safe random spawn point")
+@StackTrace(false)
+public class SpawnSearchEvent extends Event {
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,25 @@
+package io.github.drag0n1zed.drandomspawn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a player's spawn request, from the request to the moment they can be teleported.
+ */
+@Name("drandomspawn.SpawnTeleport")
+@Label("Spawn Teleport")
+@Category("dRandomSpawn")
+@Description("Time a player waits for a random spawn, including the pool and any live search")
+@StackTrace(false)
+public class SpawnTeleportEvent extends Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Found")
+    public boolean found;
+}
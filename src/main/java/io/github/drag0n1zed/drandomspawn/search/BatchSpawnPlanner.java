@@ -0,0 +1,127 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plans safe destinations for a group of players as one search.
+ * Several probe lanes share one candidate stream, so every chunk is probed at most once per batch,
+ * and destinations are kept a minimum distance apart from each other.
+ */
+public final class BatchSpawnPlanner {
+
+    private BatchSpawnPlanner() {
+    }
+
+    /**
+     * Runs on a search thread. Finds up to {@code count} destinations, using {@code count * maxTries} attempts in total.
+     *
+     * @param minSpacing The minimum horizontal distance between two destinations, in blocks.
+     * @param lanes      How many candidates are probed at the same time.
+     * @return A future completing with the destinations found. May hold fewer than {@code count} positions.
+     */
+    public static CompletableFuture<List<BlockPos>> plan(ServerLevel world, BlockPos centerPos, SearchProfile profile,
+                                                         SpawnPointsData spawnPoints, int count, int minSpacing, int lanes) {
+        Plan plan = new Plan(world, centerPos, profile, spawnPoints, count, minSpacing);
+
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[Math.max(1, Math.min(lanes, count))];
+        for (int i = 0; i < laneFutures.length; i++) {
+            laneFutures[i] = runLane(plan);
+        }
+        return CompletableFuture.allOf(laneFutures).thenApply(ignored -> plan.getDestinations());
+    }
+
+    /**
+     * Probes candidates one after another until the plan is complete or out of attempts.
+     */
+    private static CompletableFuture<Void> runLane(Plan plan) {
+        BlockPos candidate = plan.nextCandidate();
+        if (candidate == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return SpawnSearch.probeCandidate(plan.world, candidate.getX(), candidate.getZ(), plan.centerPos, plan.profile, plan.spawnPoints)
+                .thenComposeAsync(foundPos -> {
+                    plan.offer(foundPos);
+                    return runLane(plan);
+                }, SpawnSearchExecutor.WORKERS);
+    }
+
+    /**
+     * The shared state of one batch. Lanes call into it from different search threads, so it is synchronized.
+     */
+    private static final class Plan {
+        private final ServerLevel world;
+        private final BlockPos centerPos;
+        private final SearchProfile profile;
+        private final SpawnPointsData spawnPoints;
+        private final int count;
+        private final long minSpacingSqr;
+
+        private final List<BlockPos> destinations = new ArrayList<>();
+        // Chunks already probed by this batch. A second candidate in the same chunk would only repeat the result.
+        private final LongSet probedChunks = new LongOpenHashSet();
+        private int attemptsLeft;
+
+        private Plan(ServerLevel world, BlockPos centerPos, SearchProfile profile, SpawnPointsData spawnPoints, int count, int minSpacing) {
+            this.world = world;
+            this.centerPos = centerPos;
+            this.profile = profile;
+            this.spawnPoints = spawnPoints;
+            this.count = count;
+            this.minSpacingSqr = (long) minSpacing * minSpacing;
+            this.attemptsLeft = count * profile.getMaxTries();
+        }
+
+        /**
+         * @return The next column to probe, or null once the plan is complete or out of attempts.
+         */
+        private synchronized BlockPos nextCandidate() {
+            while (destinations.size() < count && attemptsLeft > 0) {
+                attemptsLeft--;
+                BlockPos candidate = SpawnSearch.sampleCandidate(world, centerPos, profile, spawnPoints);
+                if (candidate == null) {
+                    continue;
+                }
+                long chunkKey = ChunkPos.asLong(SectionPos.blockToSectionCoord(candidate.getX()), SectionPos.blockToSectionCoord(candidate.getZ()));
+                if (!probedChunks.add(chunkKey) || isTooClose(candidate)) {
+                    continue;
+                }
+                return candidate;
+            }
+            return null;
+        }
+
+        /**
+         * Records a probe result. Lanes probe concurrently, so the spacing is checked again here.
+         */
+        private synchronized void offer(BlockPos foundPos) {
+            if (foundPos != null && destinations.size() < count && !isTooClose(foundPos)) {
+                destinations.add(foundPos);
+            }
+        }
+
+        private synchronized List<BlockPos> getDestinations() {
+            return List.copyOf(destinations);
+        }
+
+        private boolean isTooClose(BlockPos pos) {
+            for (BlockPos destination : destinations) {
+                long dx = destination.getX() - pos.getX();
+                long dz = destination.getZ() - pos.getZ();
+                if (dx * dx + dz * dz < minSpacingSqr) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
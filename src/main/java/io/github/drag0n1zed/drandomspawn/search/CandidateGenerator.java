@@ -0,0 +1,55 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/**
+ * Produces the candidate columns a search probes. Every candidate lies in the search area, so no draw is wasted.
+ * Generators are shared by all searches in a dimension and may be called from several search threads at once.
+ */
+public interface CandidateGenerator {
+
+    /**
+     * How successive candidates are spread over the search area.
+     */
+    enum Type {
+        /**
+         * Independent uniform random points.
+         */
+        RANDOM,
+        /**
+         * The R2 low-discrepancy sequence. Successive candidates fill the area evenly instead of clustering.
+         */
+        R2,
+        /**
+         * The Halton low-discrepancy sequence in bases 2 and 3.
+         */
+        HALTON,
+        /**
+         * Uniform random points moved to the center of their chunk, so no two candidates probe different columns of one chunk.
+         */
+        CHUNK_ALIGNED
+    }
+
+    /**
+     * Writes the next candidate column to the x and z of {@code candidate}.
+     */
+    void next(BlockPos centerPos, SearchProfile profile, BlockPos.MutableBlockPos candidate);
+
+    /**
+     * Returns the generator of the given type for a dimension. Sequences continue across searches,
+     * so consecutive searches in a dimension cover new ground instead of repeating each other.
+     */
+    static CandidateGenerator get(ResourceKey<Level> dimension, Type type) {
+        return CandidateGenerators.get(dimension, type);
+    }
+
+    /**
+     * Returns a generator spreading candidates like the given type, but from an independent random stream,
+     * for candidates that are thrown away and drawn again. It never advances the shared low-discrepancy sequences.
+     */
+    static CandidateGenerator independent(Type type) {
+        return CandidateGenerators.independent(type);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The built-in candidate generators.
+ */
+final class CandidateGenerators {
+
+    // The plastic number, the two-dimensional analogue of the golden ratio that the R2 sequence is built on.
+    private static final double PLASTIC_NUMBER = 1.32471795724474602596;
+    private static final double R2_ALPHA_X = 1 / PLASTIC_NUMBER;
+    private static final double R2_ALPHA_Z = 1 / (PLASTIC_NUMBER * PLASTIC_NUMBER);
+    // How many times a chunk-aligned candidate is redrawn when its chunk center falls outside the search area.
+    private static final int MAX_CHUNK_ALIGN_TRIES = 8;
+
+    private static final Map<ResourceKey<Level>, CandidateGenerator> R2_SEQUENCES = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, CandidateGenerator> HALTON_SEQUENCES = new ConcurrentHashMap<>();
+
+    private static final CandidateGenerator RANDOM = (centerPos, profile, candidate) -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        toCandidate(random.nextDouble(), random.nextDouble(), centerPos, profile, candidate);
+    };
+
+    private static final CandidateGenerator CHUNK_ALIGNED = (centerPos, profile, candidate) -> {
+        for (int i = 0; i < MAX_CHUNK_ALIGN_TRIES; i++) {
+            RANDOM.next(centerPos, profile, candidate);
+            int chunkCenterX = (candidate.getX() & ~15) + 8;
+            int chunkCenterZ = (candidate.getZ() & ~15) + 8;
+            if (profile.getShape().contains(chunkCenterX - centerPos.getX(), chunkCenterZ - centerPos.getZ(),
+                    profile.getMinDistance(), profile.getMaxDistance())) {
+                candidate.set(chunkCenterX, 0, chunkCenterZ);
+                return;
+            }
+        }
+        // The area is thinner than a chunk here; keep the last unaligned point, which is inside it.
+    };
+
+    private CandidateGenerators() {
+    }
+
+    static CandidateGenerator get(ResourceKey<Level> dimension, CandidateGenerator.Type type) {
+        return switch (type) {
+            case RANDOM -> RANDOM;
+            case CHUNK_ALIGNED -> CHUNK_ALIGNED;
+            case R2 -> R2_SEQUENCES.computeIfAbsent(dimension, key -> new SequenceGenerator(CandidateGenerators::r2));
+            case HALTON -> HALTON_SEQUENCES.computeIfAbsent(dimension, key -> new SequenceGenerator(CandidateGenerators::halton));
+        };
+    }
+
+    static CandidateGenerator independent(CandidateGenerator.Type type) {
+        return type == CandidateGenerator.Type.CHUNK_ALIGNED ? CHUNK_ALIGNED : RANDOM;
+    }
+
+    private static void toCandidate(double u, double v, BlockPos centerPos, SearchProfile profile, BlockPos.MutableBlockPos candidate) {
+        profile.getShape().toOffset(u, v, profile.getMinDistance(), profile.getMaxDistance(), candidate);
+        candidate.set(centerPos.getX() + candidate.getX(), 0, centerPos.getZ() + candidate.getZ());
+    }
+
+    private static void r2(long index, double[] point) {
+        point[0] = frac(0.5 + index * R2_ALPHA_X);
+        point[1] = frac(0.5 + index * R2_ALPHA_Z);
+    }
+
+    private static void halton(long index, double[] point) {
+        point[0] = radicalInverse(index, 2);
+        point[1] = radicalInverse(index, 3);
+    }
+
+    private static double frac(double value) {
+        return value - Math.floor(value);
+    }
+
+    private static double radicalInverse(long index, int base) {
+        double result = 0;
+        double fraction = 1.0 / base;
+        while (index > 0) {
+            result += (index % base) * fraction;
+            index /= base;
+            fraction /= base;
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Sequence {
+        void point(long index, double[] point);
+    }
+
+    /**
+     * Walks a low-discrepancy sequence with a shared index. The index starts at a random point,
+     * so a restarted server does not probe the same candidates again.
+     */
+    private static final class SequenceGenerator implements CandidateGenerator {
+        private final Sequence sequence;
+        private final AtomicLong nextIndex = new AtomicLong(ThreadLocalRandom.current().nextInt(1 << 20));
+
+        private SequenceGenerator(Sequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void next(BlockPos centerPos, SearchProfile profile, BlockPos.MutableBlockPos candidate) {
+            double[] point = new double[2];
+            sequence.point(nextIndex.getAndIncrement(), point);
+            toCandidate(point[0], point[1], centerPos, profile, candidate);
+        }
+    }
+}
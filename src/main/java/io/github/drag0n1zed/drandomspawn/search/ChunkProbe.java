@@ -0,0 +1,171 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.metrics.ChunkAcquireEvent;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Probes a candidate column without blocking any thread while its chunk loads.
+ * The chunk is requested through the server's chunk futures and held by a ticket;
+ * the safety check then runs on the server thread once the chunk is ready.
+ */
+public final class ChunkProbe {
+
+    // Keeps a probed chunk loaded until its check has run. Removed explicitly, so it never expires on its own.
+    private static final TicketType<ChunkPos> PROBE_TICKET = TicketType.create("drandomspawn_probe", Comparator.comparingLong(ChunkPos::toLong));
+
+    /**
+     * How far probed chunks are generated before they are checked.
+     */
+    public enum ProbeStatus {
+        /**
+         * Terrain, surface blocks, biomes and carved caves, but no features or light. The lowest ticket level that
+         * generates surface blocks takes the chunk up to LIQUID_CARVERS, the last stage before features,
+         * so the chunk is checked once both carver stages are done.
+         * The chunk the spawn is taken from is then promoted to full status and checked again,
+         * since trees and other features are only placed then.
+         */
+        SURFACE(ChunkStatus.SURFACE),
+        /**
+         * Fully generated chunks, as in the original mod.
+         */
+        FULL(ChunkStatus.FULL);
+
+        private final ChunkStatus chunkStatus;
+
+        ProbeStatus(ChunkStatus chunkStatus) {
+            this.chunkStatus = chunkStatus;
+        }
+
+        public ChunkStatus getChunkStatus() {
+            return chunkStatus;
+        }
+    }
+
+    /**
+     * A safety check run on the server thread against a loaded chunk.
+     */
+    @FunctionalInterface
+    public interface ColumnCheck {
+        /**
+         * @return The position the player can stand at, or null if the column is not safe.
+         */
+        BlockPos check(ServerLevel level, ChunkAccess chunk, int x, int z);
+    }
+
+    private ChunkProbe() {
+    }
+
+    /**
+     * Loads the chunk holding the given column at full status and runs the check against it.
+     */
+    public static CompletableFuture<BlockPos> probe(ServerLevel level, int x, int z, ColumnCheck check) {
+        return probe(level, x, z, ChunkStatus.FULL, check);
+    }
+
+    /**
+     * Loads the chunk holding the given column up to at least the given status and runs the check against it.
+     * Ticket levels do not map to every status, so the chunk is generated up to the highest status its ticket level reaches,
+     * and the check only runs once that status is done, so nothing is still writing into the chunk.
+     * Below full status the check sees a chunk that is not fully generated, and the chunk is not generated any further.
+     * When called off the server thread, cancelling the returned future releases the chunk's ticket at once and skips the check,
+     * so the server can drop a chunk that is still generating for a probe nobody waits for anymore.
+     *
+     * @return A future completing on the server thread with the check's result,
+     * or with null if the chunk could not be loaded.
+     */
+    public static CompletableFuture<BlockPos> probe(ServerLevel level, int x, int z, ChunkStatus status, ColumnCheck check) {
+        return probe(level, x, z, status, false, check);
+    }
+
+    /**
+     * Like {@link #probe(ServerLevel, int, int, ChunkStatus, ColumnCheck)}, but a background probe,
+     * made for no waiting player, is kept out of the metrics and JFR events.
+     */
+    public static CompletableFuture<BlockPos> probe(ServerLevel level, int x, int z, ChunkStatus status, boolean background, ColumnCheck check) {
+        MinecraftServer server = level.getServer();
+
+        // Requesting a chunk future from the server thread waits for the chunk, so hop off it first.
+        if (server.isSameThread()) {
+            return CompletableFuture.supplyAsync(() -> probe(level, x, z, status, background, check), SpawnSearchExecutor.WORKERS)
+                    .thenCompose(Function.identity());
+        }
+
+        ServerChunkCache chunkSource = level.getChunkSource();
+        ChunkPos chunkPos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+
+        // Server tasks run in order, so the ticket is always added before it is removed below.
+        // The lowest ticket level that reaches the requested status, the same one the chunk future itself asks for.
+        // Its chunk is generated up to reachedStatus, e.g. LIQUID_CARVERS for SURFACE, and its neighbours up to lower statuses.
+        int statusDistance = ChunkStatus.getDistance(status);
+        int ticketDistance = -statusDistance;
+        ChunkStatus reachedStatus = ChunkStatus.getStatusAroundFullChunk(statusDistance);
+        server.execute(() -> chunkSource.addRegionTicket(PROBE_TICKET, chunkPos, ticketDistance, chunkPos));
+        if (!background) {
+            SpawnMetrics.recordProbedChunk(status == ChunkStatus.FULL);
+        }
+
+        long requestNanos = System.nanoTime();
+        ChunkAcquireEvent event = new ChunkAcquireEvent();
+        event.begin();
+
+        CompletableFuture<BlockPos> probeFuture = new CompletableFuture<>();
+        chunkSource.getChunkFuture(chunkPos.x, chunkPos.z, reachedStatus, true)
+                .whenComplete((result, throwable) -> {
+                    if (background) {
+                        return;
+                    }
+                    SpawnMetrics.recordChunkAcquire(System.nanoTime() - requestNanos);
+                    if (event.shouldCommit()) {
+                        event.dimension = level.dimension().location().toString();
+                        event.chunkX = chunkPos.x;
+                        event.chunkZ = chunkPos.z;
+                        event.status = reachedStatus.getName();
+                        event.loaded = result != null && result.left().isPresent();
+                        event.commit();
+                    }
+                })
+                .thenApplyAsync(result -> {
+                    if (probeFuture.isDone()) {
+                        // Cancelled while the chunk was loading; its ticket is already gone.
+                        return null;
+                    }
+                    return result.left()
+                            .map(chunk -> check.check(level, chunk, x, z))
+                            .orElseGet(() -> {
+                                if (!background) {
+                                    SpawnMetrics.recordRejection(SpawnMetrics.Rejection.CHUNK_UNAVAILABLE);
+                                }
+                                return null;
+                            });
+                }, server)
+                .whenCompleteAsync((foundPos, throwable) -> {
+                    chunkSource.removeRegionTicket(PROBE_TICKET, chunkPos, ticketDistance, chunkPos);
+                    if (throwable != null) {
+                        probeFuture.completeExceptionally(throwable);
+                    } else {
+                        probeFuture.complete(foundPos);
+                    }
+                }, server);
+
+        probeFuture.whenComplete((foundPos, throwable) -> {
+            if (probeFuture.isCancelled()) {
+                // Removing a ticket that is already gone does nothing, so the removal above may still run later.
+                server.execute(() -> chunkSource.removeRegionTicket(PROBE_TICKET, chunkPos, ticketDistance, chunkPos));
+            }
+        });
+        return probeFuture;
+    }
+}
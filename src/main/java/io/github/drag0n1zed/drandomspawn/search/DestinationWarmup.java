@@ -0,0 +1,77 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Loads the chunks around a destination before a player is teleported there,
+ * so they arrive in a loaded world instead of the void, and the server never loads those chunks synchronously.
+ */
+public final class DestinationWarmup {
+
+    // Holds the chunks around a destination until the player's own ticket takes over.
+    // Expires on its own, so a warm-up started for a player who never arrives does not keep chunks loaded.
+    private static final TicketType<ChunkPos> WARMUP_TICKET = TicketType.create("drandomspawn_warmup", Comparator.comparingLong(ChunkPos::toLong), 20 * 30);
+
+    private DestinationWarmup() {
+    }
+
+    /**
+     * Places a temporary ticket around the destination and waits until every chunk within the radius is fully loaded.
+     * Warming up the same destination again refreshes the ticket and completes as soon as the chunks are ready.
+     * Cancelling the returned future, e.g. when the player logs out, removes the ticket instead of waiting for it to expire.
+     *
+     * @param radius The radius in chunks around the destination's chunk; 0 loads only that chunk.
+     * @return A future completing once the chunks are ready. It also completes normally if a chunk could not be loaded,
+     * since the teleport itself loads whatever is still missing.
+     */
+    public static CompletableFuture<Void> warmUp(ServerLevel level, BlockPos pos, int radius) {
+        MinecraftServer server = level.getServer();
+
+        // Requesting a chunk future from the server thread waits for the chunk, so hop off it first.
+        if (server.isSameThread()) {
+            return SpawnSearchExecutor.thenComposeCancellable(
+                    CompletableFuture.supplyAsync(() -> warmUp(level, pos, radius), SpawnSearchExecutor.WORKERS),
+                    Function.identity());
+        }
+
+        ServerChunkCache chunkSource = level.getChunkSource();
+        ChunkPos centerChunk = new ChunkPos(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+
+        // A region ticket at this distance brings every chunk within the radius to full status.
+        server.execute(() -> chunkSource.addRegionTicket(WARMUP_TICKET, centerChunk, radius, centerChunk));
+
+        long startNanos = System.nanoTime();
+        int diameter = 2 * radius + 1;
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[diameter * diameter];
+        int count = 0;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                chunks[count++] = chunkSource.getChunkFuture(centerChunk.x + dx, centerChunk.z + dz, ChunkStatus.FULL, true);
+            }
+        }
+
+        CompletableFuture<Void> result = CompletableFuture.allOf(chunks)
+                .handle((ignored, throwable) -> {
+                    SpawnMetrics.recordWarmup(System.nanoTime() - startNanos);
+                    return null;
+                });
+        result.whenComplete((ignored, throwable) -> {
+            if (result.isCancelled()) {
+                server.execute(() -> chunkSource.removeRegionTicket(WARMUP_TICKET, centerChunk, radius, centerChunk));
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers chunks a search has already loaded and checked the columns of without finding a safe one,
+ * so later searches in the dimension skip them without loading them again. Holds at most the profile's rejectedChunkCacheSize chunks per dimension,
+ * evicting the least recently used one when full.
+ * A cache belongs to the profile it was filled under, so publishing a new profile starts every dimension afresh.
+ */
+public final class RejectedChunkCache {
+
+    private static final Map<ResourceKey<Level>, RejectedChunkCache> CACHES = new ConcurrentHashMap<>();
+    private static final RejectedChunkCache DISABLED = new RejectedChunkCache(null, 0);
+
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder missCount = new LongAdder();
+
+    private final SearchProfile profile;
+    private final int capacity;
+    // Packed chunk positions in access order, least recently used first.
+    private final LongLinkedOpenHashSet chunks;
+
+    private RejectedChunkCache(SearchProfile profile, int capacity) {
+        this.profile = profile;
+        this.capacity = capacity;
+        this.chunks = new LongLinkedOpenHashSet(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Returns the cache searches with the given profile should use in a dimension.
+     * Searches still running with a profile that has since been replaced get a cache that remembers nothing,
+     * so chunks rejected under old settings never reach the new cache.
+     */
+    public static RejectedChunkCache get(ResourceKey<Level> dimension, SearchProfile profile) {
+        RejectedChunkCache cache = CACHES.get(dimension);
+        if (cache != null && cache.profile == profile) {
+            return cache;
+        }
+        if (profile.getRejectedChunkCacheSize() <= 0 || profile != SearchProfile.current()) {
+            return DISABLED;
+        }
+        return CACHES.compute(dimension, (key, existing) ->
+                existing != null && existing.profile == profile ? existing : new RejectedChunkCache(profile, profile.getRejectedChunkCacheSize()));
+    }
+
+    /**
+     * Drops the caches of all dimensions, for when the server stops.
+     */
+    public static void clearAll() {
+        CACHES.clear();
+    }
+
+    /**
+     * Returns how many chunks are cached over all dimensions.
+     */
+    public static int getTotalSize() {
+        int size = 0;
+        for (RejectedChunkCache cache : CACHES.values()) {
+            size += cache.size();
+        }
+        return size;
+    }
+
+    public static long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public static long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Clears the hit and miss counters, for /drandomspawn stats reset.
+     */
+    public static void resetCounters() {
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    /**
+     * Returns true if the chunk holding the column was rejected before, marking it as recently used.
+     */
+    public boolean isRejected(int x, int z) {
+        if (capacity <= 0) {
+            return false;
+        }
+        long chunkKey = ChunkPos.asLong(x >> 4, z >> 4);
+        synchronized (this) {
+            if (!chunks.contains(chunkKey)) {
+                missCount.increment();
+                return false;
+            }
+            chunks.addAndMoveToLast(chunkKey);
+        }
+        hitCount.increment();
+        return true;
+    }
+
+    /**
+     * Remembers a chunk in which no safe column was found, evicting the least recently used chunk if the cache is full.
+     */
+    public void add(ChunkPos chunkPos) {
+        if (capacity <= 0) {
+            return;
+        }
+        synchronized (this) {
+            chunks.addAndMoveToLast(chunkPos.toLong());
+            if (chunks.size() > capacity) {
+                chunks.removeFirstLong();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return chunks.size();
+    }
+}
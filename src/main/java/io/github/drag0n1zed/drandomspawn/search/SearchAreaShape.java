@@ -0,0 +1,117 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * The shape of the area between minDistance and maxDistance around the world spawn that candidates are taken from.
+ * Each shape maps the unit square onto its area while preserving area, so uniform or low-discrepancy
+ * points in the unit square stay uniform or low-discrepancy in the search area, and no point is ever thrown away.
+ */
+public enum SearchAreaShape {
+    /**
+     * The square ring of the original mod: at least minDistance from the center on one axis, at most maxDistance on both.
+     */
+    SQUARE {
+        @Override
+        public boolean contains(int dx, int dz, int minDistance, int maxDistance) {
+            boolean isOutsideInnerSquare = Math.abs(dx) >= minDistance || Math.abs(dz) >= minDistance;
+            boolean isInsideOuterSquare = Math.abs(dx) <= maxDistance && Math.abs(dz) <= maxDistance;
+            return isOutsideInnerSquare && isInsideOuterSquare;
+        }
+
+        @Override
+        public double radialFraction(int dx, int dz, int minDistance, int maxDistance) {
+            long distance = Math.max(Math.abs((long) dx), Math.abs((long) dz));
+            return areaFraction(distance * distance, minDistance, maxDistance);
+        }
+
+        @Override
+        public void toOffset(double u, double v, int minDistance, int maxDistance, BlockPos.MutableBlockPos offset) {
+            long width = 2L * maxDistance + 1;
+            if (minDistance <= 0) {
+                offset.set(scale(u, width) - maxDistance, 0, scale(v, width) - maxDistance);
+                return;
+            }
+
+            // The ring is cut into a top and a bottom strip spanning the full width,
+            // and a left and a right strip between them. u picks a strip by its share of the area, then a column in it.
+            long stripDepth = maxDistance - minDistance + 1;
+            long sideLength = 2L * minDistance - 1;
+            double fullStripArea = (double) width * stripDepth;
+            double sideStripArea = (double) stripDepth * sideLength;
+            double s = u * (2 * fullStripArea + 2 * sideStripArea);
+
+            if (s < 2 * fullStripArea) {
+                boolean isTop = s < fullStripArea;
+                int dx = scale((s % fullStripArea) / fullStripArea, width) - maxDistance;
+                int depth = scale(v, stripDepth);
+                offset.set(dx, 0, isTop ? minDistance + depth : -minDistance - depth);
+            } else {
+                s -= 2 * fullStripArea;
+                boolean isRight = s < sideStripArea;
+                int depth = scale((s % sideStripArea) / sideStripArea, stripDepth);
+                int dz = scale(v, sideLength) - (minDistance - 1);
+                offset.set(isRight ? minDistance + depth : -minDistance - depth, 0, dz);
+            }
+        }
+    },
+    /**
+     * A true circular annulus: between minDistance and maxDistance from the center, to the nearest block.
+     */
+    CIRCLE {
+        @Override
+        public boolean contains(int dx, int dz, int minDistance, int maxDistance) {
+            // Sampled points are rounded to whole blocks, which can move them up to one block out of the exact annulus.
+            long distanceSqr = (long) dx * dx + (long) dz * dz;
+            long innerRadius = Math.max(0, minDistance - 1);
+            long outerRadius = maxDistance + 1L;
+            return distanceSqr >= innerRadius * innerRadius && distanceSqr <= outerRadius * outerRadius;
+        }
+
+        @Override
+        public double radialFraction(int dx, int dz, int minDistance, int maxDistance) {
+            return areaFraction((long) dx * dx + (long) dz * dz, minDistance, maxDistance);
+        }
+
+        @Override
+        public void toOffset(double u, double v, int minDistance, int maxDistance, BlockPos.MutableBlockPos offset) {
+            // Taking the radius from the squared range keeps the density uniform over the annulus.
+            double minSqr = (double) minDistance * minDistance;
+            double maxSqr = (double) maxDistance * maxDistance;
+            double radius = Math.sqrt(minSqr + u * (maxSqr - minSqr));
+            double angle = 2 * Math.PI * v;
+            offset.set((int) Math.round(radius * Math.cos(angle)), 0, (int) Math.round(radius * Math.sin(angle)));
+        }
+    };
+
+    /**
+     * Returns true if the offset from the world spawn lies in the search area.
+     */
+    public abstract boolean contains(int dx, int dz, int minDistance, int maxDistance);
+
+    /**
+     * Maps a point of the unit square, u and v in [0, 1), to an offset in the search area,
+     * writing it to the x and z of {@code offset}.
+     */
+    public abstract void toOffset(double u, double v, int minDistance, int maxDistance, BlockPos.MutableBlockPos offset);
+
+    /**
+     * Returns the share of the search area lying nearer the center than the offset, from 0 at minDistance to 1 at maxDistance,
+     * so cutting [0, 1] into equal bands cuts the area into rings of equal size.
+     */
+    public abstract double radialFraction(int dx, int dz, int minDistance, int maxDistance);
+
+    // Both shapes grow in area with the square of their distance, measured along an axis for the square.
+    private static double areaFraction(long distanceSqr, int minDistance, int maxDistance) {
+        double minSqr = (double) minDistance * minDistance;
+        double maxSqr = (double) maxDistance * maxDistance;
+        if (maxSqr <= minSqr) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, (distanceSqr - minSqr) / (maxSqr - minSqr)));
+    }
+
+    private static int scale(double unit, long length) {
+        return (int) Math.min(length - 1, (long) (unit * length));
+    }
+}
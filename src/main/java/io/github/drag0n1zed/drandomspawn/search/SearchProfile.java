@@ -0,0 +1,431 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.RandomSpawnConfig;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the search settings, compiled from the config when it is loaded or reloaded.
+ * Searches take the current snapshot once when they start, so they never read config values mid-search.
+ * Blacklist entries are resolved to identity sets of blocks and biome keys, plus tags for entries starting with '#'.
+ */
+public final class SearchProfile {
+
+    private static volatile SearchProfile current;
+
+    private final int minDistance;
+    private final int maxDistance;
+    private final int maxTries;
+    private final int probeFanOut;
+    private final SearchAreaShape shape;
+    private final CandidateGenerator.Type candidateGenerator;
+    private final boolean useBiomePrefilter;
+    private final ChunkProbe.ProbeStatus probeStatus;
+    private final int probeColumnsPerChunk;
+    private final int rejectedChunkCacheSize;
+    private final int minSpawnSeparation;
+    private final Map<ResourceKey<Level>, SectionColumnScanner.Bounds> verticalScanBounds;
+    private final int sectorMapAngles;
+    private final int sectorMapBands;
+    private final double sectorMapExplorationFloor;
+    private final ReferenceSet<Block> blockBlacklist;
+    private final List<TagKey<Block>> blockTagBlacklist;
+    private final ReferenceSet<ResourceKey<Biome>> biomeBlacklist;
+    private final List<TagKey<Biome>> biomeTagBlacklist;
+
+    private SearchProfile(Builder builder) {
+        this.minDistance = builder.minDistance;
+        this.maxDistance = builder.maxDistance;
+        this.maxTries = builder.maxTries;
+        this.probeFanOut = builder.probeFanOut;
+        this.shape = builder.shape;
+        this.candidateGenerator = builder.candidateGenerator;
+        this.useBiomePrefilter = builder.useBiomePrefilter;
+        this.probeStatus = builder.probeStatus;
+        this.probeColumnsPerChunk = builder.probeColumnsPerChunk;
+        this.rejectedChunkCacheSize = builder.rejectedChunkCacheSize;
+        this.minSpawnSeparation = builder.minSpawnSeparation;
+        this.verticalScanBounds = Map.copyOf(builder.verticalScanBounds);
+        this.sectorMapAngles = builder.sectorMapAngles;
+        this.sectorMapBands = builder.sectorMapBands;
+        this.sectorMapExplorationFloor = builder.sectorMapExplorationFloor;
+        this.blockBlacklist = ReferenceSets.unmodifiable(new ReferenceOpenHashSet<>(builder.blockBlacklist));
+        this.blockTagBlacklist = List.copyOf(builder.blockTagBlacklist);
+        this.biomeBlacklist = ReferenceSets.unmodifiable(new ReferenceOpenHashSet<>(builder.biomeBlacklist));
+        this.biomeTagBlacklist = List.copyOf(builder.biomeTagBlacklist);
+    }
+
+    /**
+     * Returns the snapshot searches should use, compiling one first if the config has not been compiled yet.
+     */
+    public static SearchProfile current() {
+        SearchProfile profile = current;
+        if (profile == null) {
+            // Compiled at most once, so every thread sees the same snapshot and caches tied to it stay valid.
+            synchronized (SearchProfile.class) {
+                profile = current;
+                if (profile == null) {
+                    profile = compile();
+                    current = profile;
+                }
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Replaces the current snapshot. Searches already running keep the one they started with.
+     */
+    public static synchronized void publish(SearchProfile profile) {
+        current = profile;
+    }
+
+    /**
+     * Reads the config and resolves the blacklists. Unknown entries are logged and skipped.
+     */
+    public static SearchProfile compile() {
+        ReferenceSet<Block> blocks = new ReferenceOpenHashSet<>();
+        List<TagKey<Block>> blockTags = new ArrayList<>();
+        for (String entry : RandomSpawnConfig.blockBlacklist.get()) {
+            ResourceLocation location = parseEntry(entry, "blockBlacklist");
+            if (location == null) {
+                continue;
+            }
+            if (entry.startsWith("#")) {
+                blockTags.add(TagKey.create(Registries.BLOCK, location));
+            } else if (ForgeRegistries.BLOCKS.containsKey(location)) {
+                blocks.add(ForgeRegistries.BLOCKS.getValue(location));
+            } else {
+                RandomSpawn.LOGGER.warn("Unknown block '{}' in blockBlacklist, ignoring it.", entry);
+            }
+        }
+
+        // Biomes live in a datapack registry that does not exist yet, so they are kept as keys.
+        ReferenceSet<ResourceKey<Biome>> biomes = new ReferenceOpenHashSet<>();
+        List<TagKey<Biome>> biomeTags = new ArrayList<>();
+        for (String entry : RandomSpawnConfig.biomeBlacklist.get()) {
+            ResourceLocation location = parseEntry(entry, "biomeBlacklist");
+            if (location == null) {
+                continue;
+            }
+            if (entry.startsWith("#")) {
+                biomeTags.add(TagKey.create(Registries.BIOME, location));
+            } else {
+                biomes.add(ResourceKey.create(Registries.BIOME, location));
+            }
+        }
+
+        Map<ResourceKey<Level>, SectionColumnScanner.Bounds> scanBounds = new HashMap<>();
+        for (String entry : RandomSpawnConfig.verticalScanDimensions.get()) {
+            parseScanBounds(entry, scanBounds);
+        }
+
+        return builder()
+                .distance(RandomSpawnConfig.minDistance.get(), RandomSpawnConfig.maxDistance.get())
+                .maxTries(RandomSpawnConfig.maxTries.get())
+                .probeFanOut(RandomSpawnConfig.probeFanOut.get())
+                .shape(RandomSpawnConfig.searchAreaShape.get())
+                .candidateGenerator(RandomSpawnConfig.candidateGenerator.get())
+                .useBiomePrefilter(RandomSpawnConfig.useBiomePrefilter.get())
+                .probeStatus(RandomSpawnConfig.probeChunkStatus.get())
+                .probeColumnsPerChunk(RandomSpawnConfig.probeColumnsPerChunk.get())
+                .rejectedChunkCacheSize(RandomSpawnConfig.rejectedChunkCacheSize.get())
+                .minSpawnSeparation(RandomSpawnConfig.minSpawnSeparation.get())
+                .verticalScanBounds(scanBounds)
+                .sectorMap(RandomSpawnConfig.sectorMapAngles.get(), RandomSpawnConfig.sectorMapBands.get(),
+                        RandomSpawnConfig.sectorMapExplorationFloor.get())
+                .blockBlacklist(blocks, blockTags)
+                .biomeBlacklist(biomes, biomeTags)
+                .build();
+    }
+
+    /**
+     * Starts a snapshot from already resolved values, without reading the config. Used by compile() and the benchmarks.
+     * Values that are not set leave the optional search features off.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMinDistance() {
+        return minDistance;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public int getMaxTries() {
+        return maxTries;
+    }
+
+    /**
+     * Returns how many candidates a live search probes at the same time.
+     */
+    public int getProbeFanOut() {
+        return probeFanOut;
+    }
+
+    public SearchAreaShape getShape() {
+        return shape;
+    }
+
+    public CandidateGenerator.Type getCandidateGenerator() {
+        return candidateGenerator;
+    }
+
+    /**
+     * Returns true if the offset from the world spawn lies in the search area.
+     */
+    public boolean isWithinSearchArea(int dx, int dz) {
+        return shape.contains(dx, dz, minDistance, maxDistance);
+    }
+
+    /**
+     * Returns how far probed chunks are generated before they are checked.
+     */
+    public ChunkProbe.ProbeStatus getProbeStatus() {
+        return probeStatus;
+    }
+
+    /**
+     * Returns how many columns of a loaded chunk are checked, 1 meaning only the candidate column.
+     */
+    public int getProbeColumnsPerChunk() {
+        return probeColumnsPerChunk;
+    }
+
+    /**
+     * Returns how many rejected chunks are remembered per dimension, 0 meaning none.
+     */
+    public int getRejectedChunkCacheSize() {
+        return rejectedChunkCacheSize;
+    }
+
+    /**
+     * Returns the minimum horizontal distance, in blocks, between a new spawn and any spawn already assigned.
+     */
+    public int getMinSpawnSeparation() {
+        return minSpawnSeparation;
+    }
+
+    /**
+     * Returns the range a player's feet may be at in a dimension whose columns are scanned instead of using the surface,
+     * or null if the dimension uses the surface.
+     */
+    public SectionColumnScanner.Bounds getVerticalScanBounds(ResourceKey<Level> dimension) {
+        return verticalScanBounds.get(dimension);
+    }
+
+    /**
+     * Returns how many angular sectors the sector success map cuts the search area into, 0 meaning it is disabled.
+     */
+    public int getSectorMapAngles() {
+        return sectorMapAngles;
+    }
+
+    /**
+     * Returns how many radial bands of equal area the sector success map cuts the search area into.
+     */
+    public int getSectorMapBands() {
+        return sectorMapBands;
+    }
+
+    /**
+     * Returns the lowest chance, between 0 and 1, that a candidate in the least successful sector is kept.
+     */
+    public double getSectorMapExplorationFloor() {
+        return sectorMapExplorationFloor;
+    }
+
+    /**
+     * Returns true if the biome pre-filter is enabled and has anything to reject.
+     */
+    public boolean shouldPrefilterBiomes() {
+        return useBiomePrefilter && (!biomeBlacklist.isEmpty() || !biomeTagBlacklist.isEmpty());
+    }
+
+    public boolean isBlockBlacklisted(BlockState state) {
+        if (blockBlacklist.contains(state.getBlock())) {
+            return true;
+        }
+        for (TagKey<Block> tag : blockTagBlacklist) {
+            if (state.is(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isBiomeBlacklisted(Holder<Biome> biome) {
+        if (biome.unwrapKey().map(biomeBlacklist::contains).orElse(false)) {
+            return true;
+        }
+        for (TagKey<Biome> tag : biomeTagBlacklist) {
+            if (biome.is(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the values of a {@link SearchProfile}. Not thread-safe; build the profile, then share it.
+     */
+    public static final class Builder {
+        private int minDistance = 0;
+        private int maxDistance = 5000;
+        private int maxTries = 50;
+        private int probeFanOut = 1;
+        private SearchAreaShape shape = SearchAreaShape.SQUARE;
+        private CandidateGenerator.Type candidateGenerator = CandidateGenerator.Type.RANDOM;
+        private boolean useBiomePrefilter = true;
+        private ChunkProbe.ProbeStatus probeStatus = ChunkProbe.ProbeStatus.FULL;
+        private int probeColumnsPerChunk = 1;
+        private int rejectedChunkCacheSize = 0;
+        private int minSpawnSeparation = 0;
+        private Map<ResourceKey<Level>, SectionColumnScanner.Bounds> verticalScanBounds = Map.of();
+        private int sectorMapAngles = 0;
+        private int sectorMapBands = 1;
+        private double sectorMapExplorationFloor = 1.0;
+        private Collection<Block> blockBlacklist = List.of();
+        private List<TagKey<Block>> blockTagBlacklist = List.of();
+        private Collection<ResourceKey<Biome>> biomeBlacklist = List.of();
+        private List<TagKey<Biome>> biomeTagBlacklist = List.of();
+
+        private Builder() {
+        }
+
+        public Builder distance(int minDistance, int maxDistance) {
+            this.minDistance = minDistance;
+            this.maxDistance = maxDistance;
+            return this;
+        }
+
+        public Builder maxTries(int maxTries) {
+            this.maxTries = maxTries;
+            return this;
+        }
+
+        public Builder probeFanOut(int probeFanOut) {
+            this.probeFanOut = probeFanOut;
+            return this;
+        }
+
+        public Builder shape(SearchAreaShape shape) {
+            this.shape = shape;
+            return this;
+        }
+
+        public Builder candidateGenerator(CandidateGenerator.Type candidateGenerator) {
+            this.candidateGenerator = candidateGenerator;
+            return this;
+        }
+
+        public Builder useBiomePrefilter(boolean useBiomePrefilter) {
+            this.useBiomePrefilter = useBiomePrefilter;
+            return this;
+        }
+
+        public Builder probeStatus(ChunkProbe.ProbeStatus probeStatus) {
+            this.probeStatus = probeStatus;
+            return this;
+        }
+
+        public Builder probeColumnsPerChunk(int probeColumnsPerChunk) {
+            this.probeColumnsPerChunk = probeColumnsPerChunk;
+            return this;
+        }
+
+        public Builder rejectedChunkCacheSize(int rejectedChunkCacheSize) {
+            this.rejectedChunkCacheSize = rejectedChunkCacheSize;
+            return this;
+        }
+
+        public Builder minSpawnSeparation(int minSpawnSeparation) {
+            this.minSpawnSeparation = minSpawnSeparation;
+            return this;
+        }
+
+        public Builder verticalScanBounds(Map<ResourceKey<Level>, SectionColumnScanner.Bounds> verticalScanBounds) {
+            this.verticalScanBounds = verticalScanBounds;
+            return this;
+        }
+
+        /**
+         * @param angles How many angular sectors the search area is cut into, 0 leaving the sector map off.
+         */
+        public Builder sectorMap(int angles, int bands, double explorationFloor) {
+            this.sectorMapAngles = angles;
+            this.sectorMapBands = bands;
+            this.sectorMapExplorationFloor = explorationFloor;
+            return this;
+        }
+
+        public Builder blockBlacklist(Collection<Block> blocks, List<TagKey<Block>> tags) {
+            this.blockBlacklist = blocks;
+            this.blockTagBlacklist = tags;
+            return this;
+        }
+
+        public Builder biomeBlacklist(Collection<ResourceKey<Biome>> biomes, List<TagKey<Biome>> tags) {
+            this.biomeBlacklist = biomes;
+            this.biomeTagBlacklist = tags;
+            return this;
+        }
+
+        public SearchProfile build() {
+            return new SearchProfile(this);
+        }
+    }
+
+    /**
+     * Parses a 'dimension=minY,maxY' entry of verticalScanDimensions into the map. Invalid entries are logged and skipped.
+     */
+    private static void parseScanBounds(String entry, Map<ResourceKey<Level>, SectionColumnScanner.Bounds> scanBounds) {
+        int separator = entry.indexOf('=');
+        String[] range = separator < 0 ? new String[0] : entry.substring(separator + 1).split(",");
+        ResourceLocation location = separator < 0 ? null : ResourceLocation.tryParse(entry.substring(0, separator).trim());
+        if (location == null || range.length != 2) {
+            RandomSpawn.LOGGER.warn("Invalid entry '{}' in verticalScanDimensions, expected 'dimension=minY,maxY'. Ignoring it.", entry);
+            return;
+        }
+        try {
+            int minY = Integer.parseInt(range[0].trim());
+            int maxY = Integer.parseInt(range[1].trim());
+            if (minY > maxY) {
+                RandomSpawn.LOGGER.warn("Entry '{}' in verticalScanDimensions has minY above maxY, ignoring it.", entry);
+                return;
+            }
+            scanBounds.put(ResourceKey.create(Registries.DIMENSION, location), new SectionColumnScanner.Bounds(minY, maxY));
+        } catch (NumberFormatException e) {
+            RandomSpawn.LOGGER.warn("Invalid entry '{}' in verticalScanDimensions, expected 'dimension=minY,maxY'. Ignoring it.", entry);
+        }
+    }
+
+    private static ResourceLocation parseEntry(String entry, String listName) {
+        ResourceLocation location = ResourceLocation.tryParse(entry.startsWith("#") ? entry.substring(1) : entry);
+        if (location == null) {
+            RandomSpawn.LOGGER.warn("Invalid entry '{}' in {}, ignoring it.", entry, listName);
+        }
+        return location;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.function.Predicate;
+
+/**
+ * Finds a place to stand in a column by walking down through it, for dimensions where the surface heightmap
+ * is useless, such as the Nether with its bedrock ceiling or cave-heavy custom dimensions.
+ * Sections holding only air, or nothing a player could stand in, are passed in one step, so most blocks are never read.
+ */
+public final class SectionColumnScanner {
+
+    /**
+     * Returned when the column has no place to stand within the bounds.
+     */
+    public static final int NO_FLOOR = Integer.MIN_VALUE;
+
+    /**
+     * The range the player's feet may be at, inclusive, in a dimension that is scanned instead of using its heightmap.
+     */
+    public record Bounds(int minY, int maxY) {
+    }
+
+    private SectionColumnScanner() {
+    }
+
+    /**
+     * Returns true if a player can stand on the block. Like the surface heightmap, only blocks that stop movement count,
+     * so fire, plants, torches and cobwebs are never ground.
+     */
+    public static boolean isGround(BlockState state) {
+        return state.blocksMotion();
+    }
+
+    /**
+     * Returns true if the block leaves room for a player's feet or head: air, or a block a player walks through unharmed,
+     * such as grass or crimson roots. Fluids, cobwebs and harmful blocks like fire or berry bushes do not.
+     */
+    public static boolean isRoom(BlockState state) {
+        return state.isAir() || !state.blocksMotion() && !state.is(Blocks.COBWEB) && state.getFluidState().isEmpty()
+                && !EntityType.PLAYER.isBlockDangerous(state);
+    }
+
+    /**
+     * Returns the y of the feet of the highest place in the column where a player can stand: two blocks of {@link #isRoom room}
+     * above {@link #isGround ground} accepted by {@code isValidGround}, with the feet between {@code minY} and {@code maxY}.
+     * Gaps above a rejected block, such as a lava lake, are skipped and the scan goes on below them.
+     *
+     * @return The feet y, or {@link #NO_FLOOR} if there is no such place.
+     */
+    public static int findFeetY(ChunkAccess chunk, int x, int z, int minY, int maxY, Predicate<BlockState> isValidGround) {
+        int localX = x & 15;
+        int localZ = z & 15;
+        // The head is one above the feet, the ground one below.
+        int top = Math.min(maxY + 1, chunk.getMaxBuildHeight() - 1);
+        int bottom = Math.max(minY - 1, chunk.getMinBuildHeight());
+
+        // How many blocks with room for the player lie directly above the current y.
+        int airRun = 0;
+        int y = top;
+        while (y >= bottom) {
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(y));
+            int sectionBottom = Math.max(bottom, SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(y)));
+
+            if (section.hasOnlyAir()) {
+                airRun += y - sectionBottom + 1;
+                y = sectionBottom - 1;
+                continue;
+            }
+            if (!section.maybeHas(SectionColumnScanner::isRoom)) {
+                // No room anywhere in the section, so only its top block can be ground, under room from the section above.
+                BlockState state = section.getBlockState(localX, y & 15, localZ);
+                if (airRun >= 2 && isGround(state) && isValidGround.test(state)) {
+                    return y + 1;
+                }
+                airRun = 0;
+                y = sectionBottom - 1;
+                continue;
+            }
+
+            for (; y >= sectionBottom; y--) {
+                BlockState state = section.getBlockState(localX, y & 15, localZ);
+                if (isRoom(state)) {
+                    airRun++;
+                    continue;
+                }
+                if (airRun >= 2 && isGround(state) && isValidGround.test(state)) {
+                    return y + 1;
+                }
+                airRun = 0;
+            }
+        }
+        return NO_FLOOR;
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.border.WorldBorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A coarse map of where the search area of a dimension yields safe spawns. The area is cut into angular sectors
+ * around the world spawn times radial bands of equal area, and each sector counts the candidates probed in it
+ * and how many of them were safe. Candidates drawn in sectors that rarely succeed are redrawn, so searches lean
+ * towards land on seeds where much of the area is ocean, while the exploration floor keeps every sector in play.
+ * A map belongs to the profile, world spawn and world border it was learned under, and starts afresh when any of them changes.
+ * The world border is only read on the main thread, when a search is submitted; search threads look the map up by profile and spawn.
+ */
+public final class SectorSuccessMap {
+
+    // How many times a candidate may be redrawn before the last one is kept anyway.
+    private static final int MAX_REDRAWS = 8;
+    // A sector's counts are halved once it has seen this many probes, so the map follows a world that changes, e.g. as spawns fill it up.
+    private static final int DECAY_THRESHOLD = 256;
+
+    private static final Map<ResourceKey<Level>, SectorSuccessMap> MAPS = new ConcurrentHashMap<>();
+    private static final SectorSuccessMap DISABLED = new SectorSuccessMap(null, 0, 0, null);
+
+    private static final LongAdder outcomeCount = new LongAdder();
+    private static final LongAdder redrawCount = new LongAdder();
+
+    private final SearchProfile profile;
+    private final int centerX;
+    private final int centerZ;
+    private final double borderCenterX;
+    private final double borderCenterZ;
+    private final double borderSize;
+    // Per sector, band by band: the safe probes in the high 32 bits and all probes in the low 32 bits.
+    private final AtomicLongArray counts;
+
+    // Package-private so tests can build a map without a level; the border may be null.
+    SectorSuccessMap(SearchProfile profile, int centerX, int centerZ, WorldBorder border) {
+        this.profile = profile;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.borderCenterX = border == null ? 0 : border.getCenterX();
+        this.borderCenterZ = border == null ? 0 : border.getCenterZ();
+        // The target size, so a border that is still moving does not reset the map every time it is read.
+        this.borderSize = border == null ? 0 : border.getLerpTarget();
+        this.counts = new AtomicLongArray(profile == null ? 0 : profile.getSectorMapAngles() * profile.getSectorMapBands());
+    }
+
+    /**
+     * Makes sure the dimension has a map for the given profile, center and the current world border,
+     * replacing one learned under other settings. Called on the main server thread before a search is submitted.
+     */
+    public static void prepare(ServerLevel world, BlockPos centerPos, SearchProfile profile) {
+        if (profile.getSectorMapAngles() <= 0) {
+            return;
+        }
+        WorldBorder border = world.getWorldBorder();
+        MAPS.compute(world.dimension(), (key, existing) -> existing != null && existing.matches(profile, centerPos, border)
+                ? existing : new SectorSuccessMap(profile, centerPos.getX(), centerPos.getZ(), border));
+    }
+
+    /**
+     * Returns the map searches with the given profile and center should use in a dimension, as last prepared.
+     * Searches whose settings no longer match it, e.g. because the profile has since been replaced,
+     * get a map that neither steers nor learns. Safe to call from search threads.
+     */
+    public static SectorSuccessMap get(ServerLevel world, BlockPos centerPos, SearchProfile profile) {
+        if (profile.getSectorMapAngles() <= 0) {
+            return DISABLED;
+        }
+        SectorSuccessMap map = MAPS.get(world.dimension());
+        return map != null && map.profile == profile && map.centerX == centerPos.getX() && map.centerZ == centerPos.getZ()
+                ? map : DISABLED;
+    }
+
+    /**
+     * Drops the maps of all dimensions, for when the server stops.
+     */
+    public static void clearAll() {
+        MAPS.clear();
+    }
+
+    /**
+     * Returns how many probe outcomes the maps have learned from.
+     */
+    public static long getOutcomeCount() {
+        return outcomeCount.sum();
+    }
+
+    /**
+     * Returns how many candidates were redrawn because they fell in a sector that rarely yields a spawn.
+     */
+    public static long getRedrawCount() {
+        return redrawCount.sum();
+    }
+
+    /**
+     * Clears the outcome and redraw counters, for /drandomspawn stats reset.
+     */
+    public static void resetCounters() {
+        outcomeCount.reset();
+        redrawCount.reset();
+    }
+
+    /**
+     * Writes the next candidate of the generator to {@code candidate}, redrawing it while it falls in a sector
+     * that is kept with a chance below one. A candidate in the best sector is always kept, and one in any other
+     * sector with at least the exploration floor, so no part of the search area is ever shut out.
+     * Redraws come from an independent random stream, so they do not use up the points of a low-discrepancy sequence.
+     */
+    public void next(CandidateGenerator generator, BlockPos centerPos, SearchProfile profile, BlockPos.MutableBlockPos candidate) {
+        generator.next(centerPos, profile, candidate);
+        if (counts.length() == 0) {
+            return;
+        }
+
+        CandidateGenerator redraws = CandidateGenerator.independent(profile.getCandidateGenerator());
+        double bestRate = bestSuccessRate();
+        double floor = profile.getSectorMapExplorationFloor();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < MAX_REDRAWS; i++) {
+            double rate = successRate(counts.get(sectorOf(candidate.getX(), candidate.getZ())));
+            if (random.nextDouble() < floor + (1 - floor) * rate / bestRate) {
+                return;
+            }
+            redrawCount.increment();
+            redraws.next(centerPos, profile, candidate);
+        }
+    }
+
+    /**
+     * Records whether a probed candidate column yielded a safe spawn in its chunk.
+     */
+    public void record(int x, int z, boolean safe) {
+        if (counts.length() == 0) {
+            return;
+        }
+        outcomeCount.increment();
+        counts.getAndUpdate(sectorOf(x, z), packed -> {
+            long safeCount = (packed >>> 32) + (safe ? 1 : 0);
+            long probeCount = (packed & 0xFFFFFFFFL) + 1;
+            if (probeCount >= DECAY_THRESHOLD) {
+                safeCount >>>= 1;
+                probeCount >>>= 1;
+            }
+            return safeCount << 32 | probeCount;
+        });
+    }
+
+    /**
+     * Returns the estimated share of safe probes in the sector holding the column.
+     */
+    double getSuccessRate(int x, int z) {
+        return successRate(counts.get(sectorOf(x, z)));
+    }
+
+    // --- Private Helper Methods ---
+
+    private boolean matches(SearchProfile profile, BlockPos centerPos, WorldBorder border) {
+        return this.profile == profile
+                && centerX == centerPos.getX() && centerZ == centerPos.getZ()
+                && borderCenterX == border.getCenterX() && borderCenterZ == border.getCenterZ()
+                && borderSize == border.getLerpTarget();
+    }
+
+    /**
+     * Returns the index of the sector holding the column, by its angle around the world spawn and its band.
+     */
+    private int sectorOf(int x, int z) {
+        int angles = profile.getSectorMapAngles();
+        int bands = profile.getSectorMapBands();
+        int dx = x - centerX;
+        int dz = z - centerZ;
+
+        double turn = (Math.atan2(dz, dx) + Math.PI) / (2 * Math.PI);
+        int angle = Math.min(angles - 1, (int) (turn * angles));
+        double fraction = profile.getShape().radialFraction(dx, dz, profile.getMinDistance(), profile.getMaxDistance());
+        int band = Math.min(bands - 1, (int) (fraction * bands));
+        return band * angles + angle;
+    }
+
+    private double bestSuccessRate() {
+        double best = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            best = Math.max(best, successRate(counts.get(i)));
+        }
+        return best;
+    }
+
+    /**
+     * Estimates the share of safe probes in a sector. Starts at one half for a sector never probed,
+     * so sectors are only set apart once they have been tried.
+     */
+    private static double successRate(long packed) {
+        return ((packed >>> 32) + 1.0) / ((packed & 0xFFFFFFFFL) + 2.0);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.Predicate;
+
+/**
+ * The world access the safety check needs for one column.
+ * In game it is backed by a loaded chunk; the benchmarks back it with synthetic terrain.
+ */
+public interface SpawnColumnView {
+
+    /**
+     * @return The y of the highest motion-blocking block in the column, ignoring leaves.
+     * In a chunk that is still generating, the y of the highest block that is not air, since no features are placed yet.
+     */
+    int getSurfaceHeight(int x, int z);
+
+    boolean isWithinWorldBorder(BlockPos pos);
+
+    Holder<Biome> getBiome(BlockPos pos);
+
+    BlockState getBlockState(BlockPos pos);
+
+    /**
+     * Walks down the column for the highest place a player can stand with their feet between minY and maxY.
+     * See {@link SectionColumnScanner#findFeetY}. This default reads every block; chunk views skip whole sections.
+     *
+     * @return The feet y, or {@link SectionColumnScanner#NO_FLOOR} if there is no such place.
+     */
+    default int findFeetY(int x, int z, int minY, int maxY, Predicate<BlockState> isValidGround) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int airRun = 0;
+        for (int y = maxY + 1; y >= minY - 1; y--) {
+            BlockState state = getBlockState(pos.set(x, y, z));
+            if (SectionColumnScanner.isRoom(state)) {
+                airRun++;
+                continue;
+            }
+            if (airRun >= 2 && SectionColumnScanner.isGround(state) && isValidGround.test(state)) {
+                return y + 1;
+            }
+            airRun = 0;
+        }
+        return SectionColumnScanner.NO_FLOOR;
+    }
+
+    /**
+     * Returns a view of a loaded chunk, which may still be generating. Must only be used on the main server thread.
+     */
+    static SpawnColumnView of(ServerLevel level, ChunkAccess chunk) {
+        // The final heightmaps only exist once features are placed; before that, the world generation ones are kept.
+        Heightmap.Types surfaceHeightmap = chunk.getStatus().isOrAfter(ChunkStatus.FEATURES)
+                ? Heightmap.Types.MOTION_BLOCKING_NO_LEAVES
+                : Heightmap.Types.WORLD_SURFACE_WG;
+        return new ChunkView(level, chunk, surfaceHeightmap);
+    }
+
+    record ChunkView(ServerLevel level, ChunkAccess chunk, Heightmap.Types surfaceHeightmap) implements SpawnColumnView {
+        @Override
+        public int getSurfaceHeight(int x, int z) {
+            return chunk.getHeight(surfaceHeightmap, x, z);
+        }
+
+        @Override
+        public boolean isWithinWorldBorder(BlockPos pos) {
+            return level.getWorldBorder().isWithinBounds(pos);
+        }
+
+        @Override
+        public Holder<Biome> getBiome(BlockPos pos) {
+            return level.getBiome(pos);
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            return chunk.getBlockState(pos);
+        }
+
+        @Override
+        public int findFeetY(int x, int z, int minY, int maxY, Predicate<BlockState> isValidGround) {
+            return SectionColumnScanner.findFeetY(chunk, x, z, minY, maxY, isValidGround);
+        }
+    }
+}
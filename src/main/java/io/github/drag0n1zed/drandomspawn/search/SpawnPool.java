@@ -0,0 +1,177 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.RandomSpawnConfig;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.data.SpawnPoolData;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a pool of validated spawn points per dimension, so joining players rarely wait for chunk generation.
+ * The pool is filled one search at a time while the server has spare tick time and no player search is running.
+ */
+public final class SpawnPool {
+
+    // Dimensions with a fill search running. At most one per dimension.
+    private static final Set<ResourceKey<Level>> fillsInFlight = ConcurrentHashMap.newKeySet();
+    // Dimensions filled on request from /drandomspawn pool fill, even when the server has no spare tick time.
+    private static final Set<ResourceKey<Level>> forcedFills = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder takenCount = new LongAdder();
+    private static final LongAdder staleCount = new LongAdder();
+    private static final LongAdder separationDroppedCount = new LongAdder();
+
+    private SpawnPool() {
+    }
+
+    /**
+     * Starts fill searches for dimensions whose pool is below its target size. Called at the end of every server tick.
+     */
+    public static void tick(MinecraftServer server) {
+        int targetSize = RandomSpawnConfig.spawnPoolSize.get();
+        if (targetSize <= 0) {
+            return;
+        }
+
+        // Player searches always come first.
+        boolean isExecutorIdle = SpawnSearchExecutor.getActiveCount() == 0 && SpawnSearchExecutor.getQueuedCount() == 0;
+        if (!isExecutorIdle) {
+            return;
+        }
+        boolean hasSpareTime = server.getAverageTickTime() < RandomSpawnConfig.spawnPoolMaxTickTime.get();
+
+        for (ServerLevel level : getPoolLevels(server)) {
+            ResourceKey<Level> dimension = level.dimension();
+            SpawnPoolData pool = SpawnPoolData.get(level);
+
+            if (pool.size() >= targetSize) {
+                forcedFills.remove(dimension);
+                continue;
+            }
+            if (!hasSpareTime && !forcedFills.contains(dimension)) {
+                continue;
+            }
+            if (!fillsInFlight.add(dimension)) {
+                continue;
+            }
+
+            BlockPos centerPos = level.getSharedSpawnPos();
+            SearchProfile profile = SearchProfile.current();
+            SpawnPointsData spawnPoints = SpawnPointsData.get(server);
+            SectorSuccessMap.prepare(level, centerPos, profile);
+            // A background search, so pool fills do not show up in the metrics of player searches.
+            SpawnSearchExecutor.submit(() -> SpawnSearch.search(level, centerPos, profile, spawnPoints, true))
+                    .whenCompleteAsync((foundPos, throwable) -> {
+                        fillsInFlight.remove(dimension);
+                        if (foundPos != null && !pool.addIfSeparated(foundPos, profile.getMinSpawnSeparation())) {
+                            separationDroppedCount.increment();
+                        }
+                    }, RandomSpawn.MAIN_THREAD);
+        }
+    }
+
+    /**
+     * Takes pooled spawn points until one still passes the safety check.
+     * Points that no longer lie in the search area, or are no longer safe, are dropped.
+     *
+     * @return A future completing with a safe position, or with null once the pool is empty.
+     */
+    public static CompletableFuture<BlockPos> take(ServerLevel level, SpawnPoolData pool, BlockPos centerPos, SearchProfile profile,
+                                                   SpawnPointsData spawnPoints) {
+        BlockPos pooledPos = pool.poll();
+        if (pooledPos == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int dx = pooledPos.getX() - centerPos.getX();
+        int dz = pooledPos.getZ() - centerPos.getZ();
+        boolean isInSearchArea = profile.isWithinSearchArea(dx, dz);
+        // Another player may have been given a spawn next to this point since it was pooled.
+        boolean isNearAssignedSpawn = spawnPoints.isNearAssignedSpawn(level.dimension(), pooledPos.getX(), pooledPos.getZ(), profile.getMinSpawnSeparation());
+        if (!isInSearchArea || isNearAssignedSpawn) {
+            staleCount.increment();
+            return take(level, pool, centerPos, profile, spawnPoints);
+        }
+
+        // The point's chunk was generated when it was pooled, so this is usually a chunk load from disk.
+        return ChunkProbe.probe(level, pooledPos.getX(), pooledPos.getZ(),
+                        (probeLevel, chunk, x, z) -> SpawnSearch.findSafeSpawnLocation(probeLevel, chunk, x, z, profile))
+                .thenComposeAsync(foundPos -> {
+                    if (foundPos != null) {
+                        takenCount.increment();
+                        return CompletableFuture.completedFuture(foundPos);
+                    }
+                    staleCount.increment();
+                    return take(level, pool, centerPos, profile, spawnPoints);
+                }, SpawnSearchExecutor.WORKERS);
+    }
+
+    /**
+     * Fills the pools of all pooled dimensions, even when the server has no spare tick time.
+     */
+    public static void requestFill(MinecraftServer server) {
+        for (ServerLevel level : getPoolLevels(server)) {
+            forcedFills.add(level.dimension());
+        }
+    }
+
+    /**
+     * Empties the pools of all pooled dimensions.
+     */
+    public static void clear(MinecraftServer server) {
+        for (ServerLevel level : getPoolLevels(server)) {
+            forcedFills.remove(level.dimension());
+            SpawnPoolData.get(level).clear();
+        }
+    }
+
+    public static boolean isFilling(ResourceKey<Level> dimension) {
+        return fillsInFlight.contains(dimension);
+    }
+
+    public static long getTakenCount() {
+        return takenCount.sum();
+    }
+
+    public static long getStaleCount() {
+        return staleCount.sum();
+    }
+
+    /**
+     * Returns how many found points were not pooled because they were too close to a point already in the pool.
+     */
+    public static long getSeparationDroppedCount() {
+        return separationDroppedCount.sum();
+    }
+
+    /**
+     * Returns the loaded levels listed in spawnPoolDimensions.
+     */
+    public static List<ServerLevel> getPoolLevels(MinecraftServer server) {
+        List<ServerLevel> levels = new ArrayList<>();
+        for (String dimensionId : RandomSpawnConfig.spawnPoolDimensions.get()) {
+            ResourceLocation location = ResourceLocation.tryParse(dimensionId);
+            if (location == null) {
+                continue;
+            }
+            ServerLevel level = server.getLevel(ResourceKey.create(Registries.DIMENSION, location));
+            if (level != null) {
+                levels.add(level);
+            }
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,556 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.data.SpawnPointsData;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnMetrics;
+import io.github.drag0n1zed.drandomspawn.metrics.SpawnSearchEvent;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live search for a safe random spawn: samples candidates in the "donut" around the world spawn and probes them.
+ */
+public final class SpawnSearch {
+
+    // How many rejected points an attempt may skip before it is counted as failed. Guards against blacklisting every biome.
+    private static final int MAX_PREFILTER_REJECTIONS_PER_ATTEMPT = 32;
+
+    private static final LongAdder prefilterRejectedCount = new LongAdder();
+    private static final LongAdder prefilterPassedCount = new LongAdder();
+    private static final LongAdder separationRejectedCount = new LongAdder();
+    private static final LongAdder cancelledProbeCount = new LongAdder();
+
+    private SpawnSearch() {
+    }
+
+    /**
+     * Starts a live search for a player around the given center using the given search settings.
+     *
+     * @return A future completing with the safe position found, or with null if every attempt failed.
+     * Cancelling it cancels the probes still in flight.
+     */
+    public static CompletableFuture<BlockPos> search(ServerLevel world, BlockPos centerPos, SearchProfile profile,
+                                                     SpawnPointsData spawnPoints) {
+        return search(world, centerPos, profile, spawnPoints, false);
+    }
+
+    /**
+     * Starts a live search around the given center using the given search settings.
+     *
+     * @param background True for searches no player waits for, such as spawn pool fills.
+     *                   They are kept out of the search metrics and JFR events, which describe what players see.
+     * @return A future completing with the safe position found, or with null if every attempt failed.
+     * Cancelling it cancels the probes still in flight.
+     */
+    public static CompletableFuture<BlockPos> search(ServerLevel world, BlockPos centerPos, SearchProfile profile,
+                                                     SpawnPointsData spawnPoints, boolean background) {
+        SearchRun run = new SearchRun(world, centerPos, profile, spawnPoints, background);
+        for (int lane = 0; lane < run.lanes; lane++) {
+            probeNextCandidate(run);
+        }
+        return run.result;
+    }
+
+    /**
+     * Probes a candidate column at the profile's probe status, checking the columns of its chunk the profile asks for.
+     * A spawn found in a partially generated chunk is only returned once the chunk is promoted to full status
+     * and a column of it is still safe, since trees and other features are only placed then.
+     * The outcome is recorded in the dimension's {@link SectorSuccessMap}. Runs on a search thread.
+     *
+     * @return A future completing on the server thread with the position found, or with null if the chunk has no safe column.
+     * Cancelling it cancels whichever probe is in flight.
+     */
+    public static CompletableFuture<BlockPos> probeCandidate(ServerLevel world, int x, int z, BlockPos centerPos, SearchProfile profile,
+                                                             SpawnPointsData spawnPoints) {
+        return probeCandidate(world, x, z, centerPos, profile, spawnPoints, false);
+    }
+
+    /**
+     * Like {@link #probeCandidate(ServerLevel, int, int, BlockPos, SearchProfile, SpawnPointsData)},
+     * but background probes are kept out of the metrics.
+     */
+    public static CompletableFuture<BlockPos> probeCandidate(ServerLevel world, int x, int z, BlockPos centerPos, SearchProfile profile,
+                                                             SpawnPointsData spawnPoints, boolean background) {
+        ChunkProbe.ColumnCheck check = (level, chunk, columnX, columnZ) ->
+                findSafeSpawnInChunk(level, chunk, columnX, columnZ, centerPos, profile, spawnPoints, background);
+        ChunkStatus probeStatus = profile.getProbeStatus().getChunkStatus();
+        CompletableFuture<BlockPos> probe = ChunkProbe.probe(world, x, z, probeStatus, background, check);
+        if (probeStatus == ChunkStatus.FULL) {
+            return recordOutcome(probe, world, x, z, centerPos, profile);
+        }
+
+        CompletableFuture<BlockPos> promoted = SpawnSearchExecutor.thenComposeCancellable(probe, partialPos -> {
+            if (partialPos == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // Checks the same column first, then the rest of the chunk, so a tree on the chosen column does not waste it.
+            return ChunkProbe.probe(world, partialPos.getX(), partialPos.getZ(), ChunkStatus.FULL, background, check)
+                    .thenApply(fullPos -> {
+                        if (!background) {
+                            SpawnMetrics.recordPromotion(fullPos != null);
+                        }
+                        return fullPos;
+                    });
+        });
+        return recordOutcome(promoted, world, x, z, centerPos, profile);
+    }
+
+    /**
+     * Checks a single column of a loaded chunk. Runs on the main server thread.
+     *
+     * @return The position of the player's feet if the column is safe, otherwise null.
+     */
+    public static BlockPos findSafeSpawnLocation(ServerLevel world, ChunkAccess chunk, int x, int z, SearchProfile profile) {
+        return findSafeSpawnLocation(SpawnColumnView.of(world, chunk), x, z, profile, profile.getVerticalScanBounds(world.dimension()));
+    }
+
+    /**
+     * Checks the candidate column of a loaded chunk and, if it is not safe, the other columns the profile asks for.
+     * Columns are tried nearest to the candidate first; a column only counts if it lies in the search area
+     * and keeps its distance from assigned spawns. A chunk with no safe column is counted as one rejection, with the reason
+     * of the column that got furthest through the checks. It is only added to the dimension's {@link RejectedChunkCache}
+     * if its other columns were checked too, since one failed column says nothing about the rest of the chunk.
+     * Runs on the main server thread.
+     *
+     * @return The position of the player's feet in the safe column nearest the candidate, or null if none was found.
+     */
+    public static BlockPos findSafeSpawnInChunk(ServerLevel world, ChunkAccess chunk, int x, int z, BlockPos centerPos,
+                                                SearchProfile profile, SpawnPointsData spawnPoints) {
+        return findSafeSpawnInChunk(world, chunk, x, z, centerPos, profile, spawnPoints, false);
+    }
+
+    /**
+     * Checks a single column through the given view, standing on its surface.
+     *
+     * @return The position of the player's feet if the column is safe, otherwise null.
+     */
+    public static BlockPos findSafeSpawnLocation(SpawnColumnView view, int x, int z, SearchProfile profile) {
+        return findSafeSpawnLocation(view, x, z, profile, null);
+    }
+
+    /**
+     * Checks a single column through the given view. With scan bounds, the column is walked down for the highest place
+     * to stand within them instead of using the surface, so dimensions with a ceiling or caves can be searched.
+     * A rejected column is counted in the rejection metrics.
+     *
+     * @param scanBounds The range the feet may be at, or null to stand on the surface above y = 63.
+     * @return The position of the player's feet if the column is safe, otherwise null.
+     */
+    public static BlockPos findSafeSpawnLocation(SpawnColumnView view, int x, int z, SearchProfile profile,
+                                                 SectionColumnScanner.Bounds scanBounds) {
+        BlockPos.MutableBlockPos feetPos = new BlockPos.MutableBlockPos();
+        SpawnMetrics.Rejection rejection = checkColumn(view, x, z, profile, scanBounds, feetPos);
+        if (rejection != null) {
+            SpawnMetrics.recordRejection(rejection);
+            return null;
+        }
+        return feetPos.immutable();
+    }
+
+    /**
+     * Returns how many candidates the biome pre-filter rejected, i.e. how many chunk loads it saved.
+     */
+    public static long getPrefilterRejectedCount() {
+        return prefilterRejectedCount.sum();
+    }
+
+    public static long getPrefilterPassedCount() {
+        return prefilterPassedCount.sum();
+    }
+
+    /**
+     * Returns how many candidates were dropped for being too close to an assigned spawn point.
+     */
+    public static long getSeparationRejectedCount() {
+        return separationRejectedCount.sum();
+    }
+
+    /**
+     * Returns how many probes were cancelled because another probe of the same search found a spawn first.
+     */
+    public static long getCancelledProbeCount() {
+        return cancelledProbeCount.sum();
+    }
+
+    /**
+     * Clears the pre-filter and probe counters, for /drandomspawn stats reset.
+     */
+    public static void resetCounters() {
+        prefilterRejectedCount.reset();
+        prefilterPassedCount.reset();
+        separationRejectedCount.reset();
+        cancelledProbeCount.reset();
+    }
+
+    /**
+     * Takes the next column from the profile's candidate generator, steered by the dimension's {@link SectorSuccessMap},
+     * that is not in a chunk already rejected, keeps its distance from spawn points already assigned,
+     * and whose biome passes the pre-filter. Runs on a search thread; no chunk is loaded.
+     *
+     * @return The candidate column at y = 0, or null if every point sampled for this attempt was rejected.
+     */
+    public static BlockPos sampleCandidate(ServerLevel world, BlockPos centerPos, SearchProfile profile, SpawnPointsData spawnPoints) {
+        return sampleCandidate(world, centerPos, profile, spawnPoints, false);
+    }
+
+    // --- Private Helper Methods ---
+
+    private static BlockPos sampleCandidate(ServerLevel world, BlockPos centerPos, SearchProfile profile, SpawnPointsData spawnPoints,
+                                            boolean background) {
+        CandidateGenerator generator = CandidateGenerator.get(world.dimension(), profile.getCandidateGenerator());
+        RejectedChunkCache rejectedChunks = RejectedChunkCache.get(world.dimension(), profile);
+        SectorSuccessMap sectors = SectorSuccessMap.get(world, centerPos, profile);
+
+        BlockPos.MutableBlockPos candidate = new BlockPos.MutableBlockPos();
+        for (int prefilterRejections = 0; prefilterRejections < MAX_PREFILTER_REJECTIONS_PER_ATTEMPT; prefilterRejections++) {
+            sectors.next(generator, centerPos, profile, candidate);
+
+            // Drops points in chunks already found unsafe, too close to another player's spawn, or whose biome is blacklisted,
+            // before any chunk is loaded for them.
+            int x = candidate.getX();
+            int z = candidate.getZ();
+            if (rejectedChunks.isRejected(x, z)) {
+                continue;
+            }
+            if (spawnPoints.isNearAssignedSpawn(world.dimension(), x, z, profile.getMinSpawnSeparation())) {
+                if (!background) {
+                    separationRejectedCount.increment();
+                }
+                continue;
+            }
+            if (!isBiomeRejectedByPrefilter(world, profile, x, z, background)) {
+                return new BlockPos(x, 0, z);
+            }
+        }
+        return null;
+    }
+
+    private static BlockPos findSafeSpawnInChunk(ServerLevel world, ChunkAccess chunk, int x, int z, BlockPos centerPos,
+                                                 SearchProfile profile, SpawnPointsData spawnPoints, boolean background) {
+        SpawnColumnView view = SpawnColumnView.of(world, chunk);
+        SectionColumnScanner.Bounds scanBounds = profile.getVerticalScanBounds(world.dimension());
+        BlockPos.MutableBlockPos feetPos = new BlockPos.MutableBlockPos();
+        SpawnMetrics.Rejection bestRejection = checkColumn(view, x, z, profile, scanBounds, feetPos);
+        int columnCount = profile.getProbeColumnsPerChunk();
+        if (bestRejection == null || columnCount <= 1) {
+            if (!background) {
+                SpawnMetrics.recordColumnScan(1, false);
+            }
+            if (bestRejection == null) {
+                return feetPos.immutable();
+            }
+            if (!background) {
+                SpawnMetrics.recordRejection(bestRejection);
+            }
+            return null;
+        }
+
+        // Columns on an evenly spaced grid, packed as (distance squared to the candidate << 8 | local index) and sorted.
+        int step = 16 / (int) Math.round(Math.sqrt(columnCount));
+        int chunkMinX = chunk.getPos().getMinBlockX();
+        int chunkMinZ = chunk.getPos().getMinBlockZ();
+        long[] columns = new long[columnCount];
+        int count = 0;
+        for (int localX = step / 2; localX < 16; localX += step) {
+            for (int localZ = step / 2; localZ < 16; localZ += step) {
+                long dx = chunkMinX + localX - x;
+                long dz = chunkMinZ + localZ - z;
+                columns[count++] = ((dx * dx + dz * dz) << 8) | (localX << 4) | localZ;
+            }
+        }
+        Arrays.sort(columns, 0, count);
+
+        int checked = 1;
+        for (int i = 0; i < count; i++) {
+            int columnX = chunkMinX + (int) ((columns[i] >> 4) & 15);
+            int columnZ = chunkMinZ + (int) (columns[i] & 15);
+            if (columnX == x && columnZ == z) {
+                continue;
+            }
+            if (!profile.isWithinSearchArea(columnX - centerPos.getX(), columnZ - centerPos.getZ())
+                    || spawnPoints.isNearAssignedSpawn(world.dimension(), columnX, columnZ, profile.getMinSpawnSeparation())) {
+                continue;
+            }
+            checked++;
+            SpawnMetrics.Rejection rejection = checkColumn(view, columnX, columnZ, profile, scanBounds, feetPos);
+            if (rejection == null) {
+                if (!background) {
+                    SpawnMetrics.recordColumnScan(checked, true);
+                }
+                return feetPos.immutable();
+            }
+            if (checkProgress(rejection, scanBounds) > checkProgress(bestRejection, scanBounds)) {
+                bestRejection = rejection;
+            }
+        }
+        if (!background) {
+            SpawnMetrics.recordColumnScan(checked, false);
+            SpawnMetrics.recordRejection(bestRejection);
+        }
+        // Columns outside the search area or near assigned spawns are skipped, so only the candidate may have been checked.
+        if (checked > 1) {
+            RejectedChunkCache.get(world.dimension(), profile).add(chunk.getPos());
+        }
+        return null;
+    }
+
+    /**
+     * Teaches the dimension's sector map whether the probe found a spawn, once it completes. Cancelled or failed probes
+     * say nothing about the sector and are not recorded. Returns the probe itself, so cancelling still reaches it.
+     */
+    private static CompletableFuture<BlockPos> recordOutcome(CompletableFuture<BlockPos> probe, ServerLevel world, int x, int z,
+                                                             BlockPos centerPos, SearchProfile profile) {
+        SectorSuccessMap sectors = SectorSuccessMap.get(world, centerPos, profile);
+        probe.whenComplete((foundPos, throwable) -> {
+            if (throwable == null) {
+                sectors.record(x, z, foundPos != null);
+            }
+        });
+        return probe;
+    }
+
+    /**
+     * Checks a single column without recording anything. Runs on the main server thread.
+     *
+     * @param feetPos Receives the position of the player's feet if the column is safe.
+     * @return The first check the column failed, or null if it is safe.
+     */
+    private static SpawnMetrics.Rejection checkColumn(SpawnColumnView view, int x, int z, SearchProfile profile,
+                                                      SectionColumnScanner.Bounds scanBounds, BlockPos.MutableBlockPos feetPos) {
+        if (scanBounds != null) {
+            return checkColumnByScan(view, x, z, profile, scanBounds, feetPos);
+        }
+        BlockPos playerFeetPos = new BlockPos(x, view.getSurfaceHeight(x, z) + 1, z);
+        BlockPos groundPos = playerFeetPos.below();
+        BlockPos playerHeadPos = playerFeetPos.above();
+
+        if (!view.isWithinWorldBorder(groundPos)) {
+            return SpawnMetrics.Rejection.WORLD_BORDER;
+        }
+        if (playerFeetPos.getY() <= 63) {
+            return SpawnMetrics.Rejection.BELOW_GROUND_LEVEL;
+        }
+        if (profile.isBiomeBlacklisted(view.getBiome(groundPos))) {
+            return SpawnMetrics.Rejection.BIOME;
+        }
+
+        BlockState groundState = view.getBlockState(groundPos);
+        if (groundState.isAir() || profile.isBlockBlacklisted(groundState)) {
+            return SpawnMetrics.Rejection.BLOCK;
+        }
+        if (!view.getBlockState(playerFeetPos).isAir() || !view.getBlockState(playerHeadPos).isAir()) {
+            return SpawnMetrics.Rejection.NO_SPACE;
+        }
+        feetPos.set(playerFeetPos);
+        return null;
+    }
+
+    /**
+     * The scan only accepts places with solid, allowed ground and room for the player,
+     * so the world border and the biome are all that is left to check.
+     */
+    private static SpawnMetrics.Rejection checkColumnByScan(SpawnColumnView view, int x, int z, SearchProfile profile,
+                                                            SectionColumnScanner.Bounds scanBounds, BlockPos.MutableBlockPos feetPos) {
+        int feetY = view.findFeetY(x, z, scanBounds.minY(), scanBounds.maxY(), state -> !profile.isBlockBlacklisted(state));
+        if (feetY == SectionColumnScanner.NO_FLOOR) {
+            return SpawnMetrics.Rejection.NO_SPACE;
+        }
+
+        BlockPos playerFeetPos = new BlockPos(x, feetY, z);
+        BlockPos groundPos = playerFeetPos.below();
+        if (!view.isWithinWorldBorder(groundPos)) {
+            return SpawnMetrics.Rejection.WORLD_BORDER;
+        }
+        if (profile.isBiomeBlacklisted(view.getBiome(groundPos))) {
+            return SpawnMetrics.Rejection.BIOME;
+        }
+        feetPos.set(playerFeetPos);
+        return null;
+    }
+
+    /**
+     * Returns how far a column got through the checks before it was rejected, higher meaning further.
+     * The surface checks run in the order of {@link SpawnMetrics.Rejection}; the scan finds its floor first.
+     */
+    private static int checkProgress(SpawnMetrics.Rejection rejection, SectionColumnScanner.Bounds scanBounds) {
+        return scanBounds != null && rejection == SpawnMetrics.Rejection.NO_SPACE ? -1 : rejection.ordinal();
+    }
+
+    /**
+     * Runs on a search thread. Claims the next attempt of the search, samples a candidate and probes it.
+     * Each of the search's lanes runs this in turn: when a probe is not safe, the lane's next attempt is chained onto it,
+     * so no thread waits for chunks. A lane stops once the search has a result or every attempt is claimed.
+     */
+    private static void probeNextCandidate(SearchRun run) {
+        while (!run.result.isDone()) {
+            int attempt = run.nextAttempt.getAndIncrement();
+            if (attempt >= run.profile.getMaxTries()) {
+                run.finishLane();
+                return;
+            }
+
+            BlockPos candidate = sampleCandidate(run.world, run.centerPos, run.profile, run.spawnPoints, run.background);
+            if (candidate == null) {
+                // Every point sampled for this attempt was rejected; count it as failed without loading a chunk.
+                continue;
+            }
+
+            // See if it's safe in the world
+            CompletableFuture<BlockPos> probe = probeCandidate(run.world, candidate.getX(), candidate.getZ(),
+                    run.centerPos, run.profile, run.spawnPoints, run.background);
+            run.track(probe);
+            probe.whenCompleteAsync((teleportPos, throwable) -> {
+                run.untrack(probe);
+                if (probe.isCancelled()) {
+                    // Another lane already finished the search.
+                    return;
+                }
+                if (throwable != null) {
+                    run.fail(throwable);
+                } else if (teleportPos != null) {
+                    // Success
+                    run.succeed(teleportPos);
+                } else {
+                    // If failure, try the next candidate
+                    probeNextCandidate(run);
+                }
+            }, SpawnSearchExecutor.WORKERS);
+            return;
+        }
+    }
+
+    /**
+     * Cheap pre-check run on a search thread. Samples the biome the chunk generator would place at the column,
+     * without loading or generating the chunk.
+     *
+     * @return true if the sampled biome is blacklisted.
+     */
+    private static boolean isBiomeRejectedByPrefilter(ServerLevel world, SearchProfile profile, int x, int z, boolean background) {
+        if (!profile.shouldPrefilterBiomes()) {
+            return false;
+        }
+        ServerChunkCache chunkSource = world.getChunkSource();
+        Holder<Biome> biome = chunkSource.getGenerator().getBiomeSource().getNoiseBiome(
+                QuartPos.fromBlock(x), QuartPos.fromBlock(world.getSeaLevel()), QuartPos.fromBlock(z),
+                chunkSource.randomState().sampler()
+        );
+
+        boolean isRejected = profile.isBiomeBlacklisted(biome);
+        if (!background) {
+            (isRejected ? prefilterRejectedCount : prefilterPassedCount).increment();
+        }
+        return isRejected;
+    }
+
+    /**
+     * The state of one live search, shared by its lanes. Each lane runs its attempts one after another,
+     * and the lanes claim attempts from a shared counter, so the search never makes more than maxTries attempts in total.
+     */
+    private static final class SearchRun {
+        private final ServerLevel world;
+        private final BlockPos centerPos;
+        private final SearchProfile profile;
+        private final SpawnPointsData spawnPoints;
+        private final boolean background;
+        private final int lanes;
+        private final AtomicInteger nextAttempt = new AtomicInteger();
+        private final AtomicInteger activeLanes;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final Set<CompletableFuture<BlockPos>> probes = ConcurrentHashMap.newKeySet();
+        private final CompletableFuture<BlockPos> result = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private final SpawnSearchEvent event = new SpawnSearchEvent();
+
+        private SearchRun(ServerLevel world, BlockPos centerPos, SearchProfile profile, SpawnPointsData spawnPoints, boolean background) {
+            this.world = world;
+            this.centerPos = centerPos;
+            this.profile = profile;
+            this.spawnPoints = spawnPoints;
+            this.background = background;
+            this.lanes = Math.max(1, Math.min(profile.getProbeFanOut(), profile.getMaxTries()));
+            this.activeLanes = new AtomicInteger(lanes);
+            event.begin();
+            // A search cancelled from outside, e.g. because its player logged out, stops its probes too.
+            result.whenComplete((foundPos, throwable) -> {
+                if (result.isCancelled() && finished.compareAndSet(false, true)) {
+                    cancelProbes();
+                }
+            });
+        }
+
+        private void track(CompletableFuture<BlockPos> probe) {
+            probes.add(probe);
+            // The search may have finished while this probe was being started.
+            if (finished.get()) {
+                cancelProbes();
+            }
+        }
+
+        private void untrack(CompletableFuture<BlockPos> probe) {
+            probes.remove(probe);
+        }
+
+        private void succeed(BlockPos foundPos) {
+            if (finished.compareAndSet(false, true)) {
+                cancelProbes();
+                result.complete(finish(foundPos));
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            if (finished.compareAndSet(false, true)) {
+                cancelProbes();
+                result.completeExceptionally(throwable);
+            }
+        }
+
+        /**
+         * Called when a lane runs out of attempts. The search has failed once every lane has.
+         */
+        private void finishLane() {
+            if (activeLanes.decrementAndGet() == 0 && finished.compareAndSet(false, true)) {
+                result.complete(finish(null));
+            }
+        }
+
+        private void cancelProbes() {
+            for (CompletableFuture<BlockPos> probe : probes) {
+                if (probe.cancel(false)) {
+                    cancelledProbeCount.increment();
+                }
+            }
+        }
+
+        /**
+         * Records the search's metrics, unless it is a background search, and returns its result.
+         */
+        private BlockPos finish(BlockPos foundPos) {
+            if (background) {
+                return foundPos;
+            }
+            int attempts = Math.min(nextAttempt.get(), profile.getMaxTries());
+            SpawnMetrics.recordSearch(attempts, System.nanoTime() - startNanos, foundPos != null);
+            if (event.shouldCommit()) {
+                event.dimension = world.dimension().location().toString();
+                event.attempts = attempts;
+                event.found = foundPos != null;
+                event.commit();
+            }
+            return foundPos;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.RandomSpawn;
+import io.github.drag0n1zed.drandomspawn.RandomSpawnConfig;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Schedules spawn searches and runs their background steps on a small pool of named daemon threads.
+ * A search is a chain of futures (see {@link ChunkProbe}), so it does not hold a thread while chunks load.
+ * The number of searches in flight is capped; extra searches wait in a bounded queue.
+ * Started when the server starts and shut down when it stops.
+ */
+public final class SpawnSearchExecutor {
+
+    /**
+     * What happens to a search request when the bounded queue is full.
+     */
+    public enum OverflowPolicy {
+        // Hold the request back and move it into the queue as soon as the queue has room again.
+        // Once searchOverflowQueueLimit requests are held back, further ones are refused as under REJECT.
+        QUEUE,
+        // Refuse the request; callers tell the player the server is busy.
+        REJECT,
+        // Skip the search; the player stays at the world spawn, as if every attempt had failed.
+        WORLD_SPAWN
+    }
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    // Guards the two queues and the active search count.
+    private static final Object lock = new Object();
+    // Searches waiting for a free slot. Bounded by searchQueueCapacity.
+    private static final Deque<SearchTask<?>> waitingSearches = new ArrayDeque<>();
+    // Searches that did not fit in the waiting queue under the QUEUE policy. Bounded by searchOverflowQueueLimit.
+    private static final Deque<SearchTask<?>> overflowQueue = new ArrayDeque<>();
+    private static int activeSearches;
+    private static int maxActiveSearches;
+    private static int queueCapacity;
+    private static int overflowQueueLimit;
+
+    private static final LongAdder submittedCount = new LongAdder();
+    private static final LongAdder completedCount = new LongAdder();
+    private static final LongAdder rejectedCount = new LongAdder();
+    private static final LongAdder overflowCount = new LongAdder();
+
+    private static volatile ThreadPoolExecutor workerPool;
+
+    /**
+     * Runs short background steps of a search on the worker pool.
+     * Also used to move calls that must not run on the server thread off of it.
+     */
+    public static final Executor WORKERS = task -> {
+        ThreadPoolExecutor pool = workerPool;
+        if (pool == null) {
+            throw new RejectedExecutionException("The spawn search executor is not running.");
+        }
+        pool.execute(task);
+    };
+
+    private SpawnSearchExecutor() {
+    }
+
+    /**
+     * Creates the worker pool using the current config values. Does nothing if it is already running.
+     */
+    public static synchronized void start() {
+        if (workerPool != null) {
+            return;
+        }
+        int workers = RandomSpawnConfig.searchWorkerThreads.get();
+        synchronized (lock) {
+            maxActiveSearches = RandomSpawnConfig.maxConcurrentSearches.get();
+            queueCapacity = RandomSpawnConfig.searchQueueCapacity.get();
+            overflowQueueLimit = RandomSpawnConfig.searchOverflowQueueLimit.get();
+            activeSearches = 0;
+        }
+
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), SpawnSearchExecutor::newWorkerThread);
+        RandomSpawn.LOGGER.info("Started dRandomSpawn search executor with {} worker(s), {} concurrent search(es) and a queue of {}.",
+                workers, maxActiveSearches, queueCapacity);
+    }
+
+    /**
+     * Stops the worker pool. Searches that have not started yet are cancelled.
+     */
+    public static synchronized void shutdown() {
+        ThreadPoolExecutor pool = workerPool;
+        if (pool == null) {
+            return;
+        }
+        workerPool = null;
+
+        synchronized (lock) {
+            for (SearchTask<?> task : waitingSearches) {
+                task.future.cancel(false);
+            }
+            for (SearchTask<?> task : overflowQueue) {
+                task.future.cancel(false);
+            }
+            waitingSearches.clear();
+            overflowQueue.clear();
+        }
+
+        pool.shutdownNow();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                RandomSpawn.LOGGER.warn("dRandomSpawn search executor did not terminate within 5 seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules a spawn search.
+     *
+     * @param search Starts the search on a worker thread and returns its future.
+     *               The future completes with the result, or with null if no safe location was found.
+     * @return A future completing with the search result. Completes with null under the WORLD_SPAWN overflow policy,
+     * and exceptionally with a {@link SpawnSearchRejectedException} under the REJECT policy, under the QUEUE policy
+     * once the overflow queue is full, or when the pool is not running.
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> search) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SearchTask<T> task = new SearchTask<>(search, future);
+        submittedCount.increment();
+
+        if (workerPool == null) {
+            rejectedCount.increment();
+            future.completeExceptionally(new SpawnSearchRejectedException("The spawn search executor is not running."));
+            return future;
+        }
+
+        boolean startNow = false;
+        boolean overflowed = false;
+        synchronized (lock) {
+            if (activeSearches < maxActiveSearches && waitingSearches.isEmpty() && overflowQueue.isEmpty()) {
+                activeSearches++;
+                startNow = true;
+            } else if (waitingSearches.size() < queueCapacity && overflowQueue.isEmpty()) {
+                waitingSearches.offer(task);
+            } else {
+                overflowed = true;
+            }
+        }
+
+        if (startNow) {
+            launch(task);
+        } else if (overflowed) {
+            handleOverflow(task);
+        }
+        return future;
+    }
+
+    /**
+     * Like {@link CompletableFuture#thenCompose}, but cancelling the returned future also cancels
+     * the stage {@code next} started, or keeps it from starting, so a cancelled search stops probing.
+     */
+    public static <T, U> CompletableFuture<U> thenComposeCancellable(CompletableFuture<T> first,
+                                                                     Function<? super T, CompletableFuture<U>> next) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        first.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<U> stage;
+            try {
+                stage = next.apply(value);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                return;
+            }
+            result.whenComplete((resultValue, resultThrowable) -> {
+                if (result.isCancelled()) {
+                    stage.cancel(false);
+                }
+            });
+            stage.whenComplete((stageValue, stageThrowable) -> {
+                if (stageThrowable != null) {
+                    result.completeExceptionally(stageThrowable);
+                } else {
+                    result.complete(stageValue);
+                }
+            });
+        });
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                first.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns true if the given throwable, or the cause it wraps, is a rejected search.
+     */
+    public static boolean isRejection(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof SpawnSearchRejectedException;
+    }
+
+    /**
+     * Returns true if the given throwable, or the cause it wraps, is a cancelled search.
+     */
+    public static boolean isCancellation(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof CancellationException;
+    }
+
+    // --- Instrumentation ---
+
+    public static int getActiveCount() {
+        synchronized (lock) {
+            return activeSearches;
+        }
+    }
+
+    public static int getQueuedCount() {
+        synchronized (lock) {
+            return waitingSearches.size();
+        }
+    }
+
+    public static int getOverflowQueuedCount() {
+        synchronized (lock) {
+            return overflowQueue.size();
+        }
+    }
+
+    public static long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    public static long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public static long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public static long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    // --- Private Helper Methods ---
+
+    private static void handleOverflow(SearchTask<?> task) {
+        overflowCount.increment();
+        switch (RandomSpawnConfig.searchOverflowPolicy.get()) {
+            case QUEUE -> {
+                synchronized (lock) {
+                    if (overflowQueue.size() < overflowQueueLimit) {
+                        overflowQueue.offer(task);
+                        return;
+                    }
+                }
+                // Even a queueing server has to stop somewhere, or a join storm grows the queue without limit.
+                rejectedCount.increment();
+                task.future.completeExceptionally(new SpawnSearchRejectedException("The spawn search overflow queue is full."));
+            }
+            case REJECT -> {
+                rejectedCount.increment();
+                task.future.completeExceptionally(new SpawnSearchRejectedException("The spawn search queue is full."));
+            }
+            case WORLD_SPAWN -> {
+                rejectedCount.increment();
+                task.future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Starts a search that already holds a slot, and hands the slot on once it finishes.
+     */
+    private static <T> void launch(SearchTask<T> task) {
+        try {
+            WORKERS.execute(() -> {
+                CompletableFuture<T> running;
+                try {
+                    running = task.future.isDone() ? CompletableFuture.completedFuture(null) : task.search.get();
+                } catch (Throwable t) {
+                    running = CompletableFuture.failedFuture(t);
+                }
+                // Cancelling the scheduled search cancels the running one as well.
+                final CompletableFuture<T> started = running;
+                task.future.whenComplete((result, throwable) -> {
+                    if (task.future.isCancelled()) {
+                        started.cancel(false);
+                    }
+                });
+                running.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        task.future.completeExceptionally(throwable);
+                    } else {
+                        task.future.complete(result);
+                    }
+                    completedCount.increment();
+                    onSearchFinished();
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(new SpawnSearchRejectedException("The spawn search executor is not running."));
+            onSearchFinished();
+        }
+    }
+
+    /**
+     * Frees a slot and starts the next waiting search, refilling the waiting queue from the overflow queue.
+     */
+    private static void onSearchFinished() {
+        SearchTask<?> next;
+        synchronized (lock) {
+            activeSearches--;
+            while (waitingSearches.size() < queueCapacity && !overflowQueue.isEmpty()) {
+                waitingSearches.offer(overflowQueue.poll());
+            }
+            next = workerPool == null ? null : waitingSearches.poll();
+            if (next != null) {
+                activeSearches++;
+            }
+        }
+        if (next != null) {
+            launch(next);
+        }
+    }
+
+    private static Thread newWorkerThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "dRandomSpawn-Search-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setUncaughtExceptionHandler((t, e) -> RandomSpawn.LOGGER.error("Uncaught exception in {}", t.getName(), e));
+        return thread;
+    }
+
+    /**
+     * A scheduled search, kept together with its future so it can be cancelled on shutdown.
+     */
+    private static final class SearchTask<T> {
+        private final Supplier<CompletableFuture<T>> search;
+        private final CompletableFuture<T> future;
+
+        private SearchTask(Supplier<CompletableFuture<T>> search, CompletableFuture<T> future) {
+            this.search = search;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+/**
+ * Thrown when a spawn search cannot be scheduled, e.g. because the search queue is full.
+ */
+public class SpawnSearchRejectedException extends RuntimeException {
+
+    public SpawnSearchRejectedException(String message) {
+        super(message);
+    }
+}
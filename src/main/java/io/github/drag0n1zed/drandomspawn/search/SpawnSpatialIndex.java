@@ -0,0 +1,80 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * A uniform grid of spawn positions for fast "is anything within r blocks" queries.
+ * With a cell size close to the query radius, a query only looks at a handful of cells, so its cost does not grow with the number of spawns.
+ * Not thread-safe; callers synchronize.
+ */
+public final class SpawnSpatialIndex {
+
+    private final int cellSize;
+    // Cell coordinates packed like chunk coordinates, mapped to the packed positions inside the cell.
+    private final Long2ObjectOpenHashMap<LongArrayList> cells = new Long2ObjectOpenHashMap<>();
+
+    public SpawnSpatialIndex(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public void add(BlockPos pos) {
+        long cellKey = cellKey(pos.getX(), pos.getZ());
+        LongArrayList cell = cells.get(cellKey);
+        if (cell == null) {
+            cell = new LongArrayList(2);
+            cells.put(cellKey, cell);
+        }
+        cell.add(pos.asLong());
+    }
+
+    public void remove(BlockPos pos) {
+        long cellKey = cellKey(pos.getX(), pos.getZ());
+        LongArrayList cell = cells.get(cellKey);
+        if (cell != null && cell.rem(pos.asLong()) && cell.isEmpty()) {
+            cells.remove(cellKey);
+        }
+    }
+
+    /**
+     * Returns true if any indexed position is closer than {@code radius} blocks to the column, measured horizontally.
+     */
+    public boolean isNear(int x, int z, int radius) {
+        if (radius <= 0) {
+            return false;
+        }
+        long radiusSqr = (long) radius * radius;
+        int minCellX = Math.floorDiv(x - radius, cellSize);
+        int maxCellX = Math.floorDiv(x + radius, cellSize);
+        int minCellZ = Math.floorDiv(z - radius, cellSize);
+        int maxCellZ = Math.floorDiv(z + radius, cellSize);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                LongArrayList cell = cells.get(ChunkPos.asLong(cellX, cellZ));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    long packedPos = cell.getLong(i);
+                    long dx = BlockPos.getX(packedPos) - x;
+                    long dz = BlockPos.getZ(packedPos) - z;
+                    if (dx * dx + dz * dz < radiusSqr) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private long cellKey(int x, int z) {
+        return ChunkPos.asLong(Math.floorDiv(x, cellSize), Math.floorDiv(z, cellSize));
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.drag0n1zed.drandomspawn;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Shared setup for tests that touch Minecraft classes: boots the vanilla registries once, without a server.
+ */
+public final class TestBootstrap {
+
+    private static boolean bootstrapped;
+
+    private TestBootstrap() {
+    }
+
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            bootstrapped = true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.drag0n1zed.drandomspawn.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpawnPointsExportTest {
+
+    @Test
+    void plainCsvFieldsAreWrittenAsIs() throws IOException {
+        assertEquals("Steve_42", csv("Steve_42"));
+        assertEquals("minecraft:the_nether", csv("minecraft:the_nether"));
+        assertEquals("", csv(""));
+    }
+
+    @Test
+    void csvFieldsWithSeparatorsOrQuotesAreQuoted() throws IOException {
+        assertEquals("\"a,b\"", csv("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", csv("say \"hi\""));
+        assertEquals("\"two\nlines\"", csv("two\nlines"));
+        // Backslashes mean nothing in CSV.
+        assertEquals("back\\slash", csv("back\\slash"));
+    }
+
+    @Test
+    void jsonStringsAreEscaped() throws IOException {
+        assertEquals("\"Steve\"", json("Steve"));
+        assertEquals("\"a,b\"", json("a,b"));
+        assertEquals("\"say \\\"hi\\\"\"", json("say \"hi\""));
+        assertEquals("\"back\\\\slash\"", json("back\\slash"));
+        assertEquals("\"tab\\there\\nnext\"", json("tab\there\nnext"));
+        assertEquals("\"bell\\u0007\"", json("bell\u0007"));
+    }
+
+    // --- Private Helper Methods ---
+
+    private static String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        SpawnPointsExport.writeCsvField(writer, value);
+        return writer.toString();
+    }
+
+    private static String json(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        SpawnPointsExport.writeJsonString(writer, value);
+        return writer.toString();
+    }
+}
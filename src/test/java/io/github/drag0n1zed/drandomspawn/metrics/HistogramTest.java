@@ -0,0 +1,118 @@
+package io.github.drag0n1zed.drandomspawn.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void valuesBelowEightAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 8; value++) {
+            histogram.record(value);
+        }
+
+        for (int rank = 1; rank <= 8; rank++) {
+            assertEquals(rank - 1, histogram.getPercentile(rank / 8.0));
+        }
+    }
+
+    @Test
+    void percentileIsTheUpperBoundOfItsBucket() {
+        Histogram histogram = new Histogram();
+        histogram.record(1000);
+        histogram.record(5000);
+
+        // 1000 falls in [896, 1023], the last quarter of [512, 1023].
+        assertEquals(1023, histogram.getPercentile(0.5));
+        // The bound of the top bucket is capped at the largest value recorded.
+        assertEquals(5000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void neighbouringValuesShareABucket() {
+        Histogram histogram = new Histogram();
+        histogram.record(8);
+        histogram.record(9);
+        histogram.record(10);
+
+        assertEquals(9, histogram.getPercentile(0.5));
+        assertEquals(10, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void percentilesAreWithinAQuarterOfTheExactValue() {
+        Histogram histogram = new Histogram();
+        int n = 10000;
+        for (int value = 1; value <= n; value++) {
+            histogram.record(value);
+        }
+
+        for (double percentile : new double[]{0.5, 0.9, 0.95, 0.99, 0.999}) {
+            long exact = (long) Math.ceil(percentile * n);
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact, "p" + percentile + " = " + reported + " is below " + exact);
+            assertTrue(reported <= exact * 1.25, "p" + percentile + " = " + reported + " is too far above " + exact);
+        }
+    }
+
+    @Test
+    void largestValueHasABucket() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void tracksCountMeanAndMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(2);
+        histogram.record(4);
+        histogram.record(12);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(6.0, histogram.getMean(), 1e-9);
+        assertEquals(12, histogram.getMax());
+    }
+
+    @Test
+    void resetClearsEverything() {
+        Histogram histogram = new Histogram();
+        histogram.record(300);
+        histogram.record(7);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.99));
+
+        histogram.record(3);
+        assertEquals(3, histogram.getPercentile(1.0));
+    }
+}
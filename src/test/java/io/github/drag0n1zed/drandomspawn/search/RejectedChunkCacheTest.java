@@ -0,0 +1,111 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.TestBootstrap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RejectedChunkCacheTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        TestBootstrap.bootstrap();
+    }
+
+    @AfterEach
+    void clearCaches() {
+        RejectedChunkCache.clearAll();
+    }
+
+    @Test
+    void addedChunkIsRejected() {
+        RejectedChunkCache cache = RejectedChunkCache.get(Level.OVERWORLD, publish(4));
+        cache.add(new ChunkPos(2, -3));
+
+        // Any column of the chunk is rejected, none of its neighbours.
+        assertTrue(cache.isRejected(32, -48));
+        assertTrue(cache.isRejected(47, -33));
+        assertFalse(cache.isRejected(48, -40));
+        assertFalse(cache.isRejected(40, -32));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedChunkWhenFull() {
+        RejectedChunkCache cache = RejectedChunkCache.get(Level.OVERWORLD, publish(2));
+        cache.add(new ChunkPos(0, 0));
+        cache.add(new ChunkPos(1, 0));
+        // Looking up the first chunk makes the second one the least recently used.
+        assertTrue(cache.isRejected(0, 0));
+        cache.add(new ChunkPos(2, 0));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.isRejected(0, 0));
+        assertFalse(cache.isRejected(16, 0));
+        assertTrue(cache.isRejected(32, 0));
+    }
+
+    @Test
+    void addingAChunkAgainDoesNotGrowTheCache() {
+        RejectedChunkCache cache = RejectedChunkCache.get(Level.OVERWORLD, publish(2));
+        cache.add(new ChunkPos(0, 0));
+        cache.add(new ChunkPos(1, 0));
+        cache.add(new ChunkPos(0, 0));
+        cache.add(new ChunkPos(2, 0));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.isRejected(0, 0));
+        assertFalse(cache.isRejected(16, 0));
+    }
+
+    @Test
+    void sizeZeroDisablesTheCache() {
+        RejectedChunkCache cache = RejectedChunkCache.get(Level.OVERWORLD, publish(0));
+        cache.add(new ChunkPos(0, 0));
+
+        assertFalse(cache.isRejected(0, 0));
+        assertEquals(0, cache.size());
+        assertEquals(0, RejectedChunkCache.getTotalSize());
+    }
+
+    @Test
+    void dimensionsHaveTheirOwnCache() {
+        SearchProfile profile = publish(4);
+        RejectedChunkCache.get(Level.OVERWORLD, profile).add(new ChunkPos(0, 0));
+
+        assertFalse(RejectedChunkCache.get(Level.NETHER, profile).isRejected(0, 0));
+        assertTrue(RejectedChunkCache.get(Level.OVERWORLD, profile).isRejected(0, 0));
+    }
+
+    @Test
+    void publishingANewProfileStartsAfresh() {
+        SearchProfile oldProfile = publish(4);
+        RejectedChunkCache.get(Level.OVERWORLD, oldProfile).add(new ChunkPos(0, 0));
+
+        SearchProfile newProfile = publish(4);
+        assertFalse(RejectedChunkCache.get(Level.OVERWORLD, newProfile).isRejected(0, 0));
+
+        // Searches still running with the old profile neither see nor fill the new cache.
+        RejectedChunkCache stale = RejectedChunkCache.get(Level.OVERWORLD, oldProfile);
+        stale.add(new ChunkPos(1, 0));
+        assertFalse(stale.isRejected(16, 0));
+        assertFalse(RejectedChunkCache.get(Level.OVERWORLD, newProfile).isRejected(16, 0));
+        assertEquals(0, RejectedChunkCache.getTotalSize());
+    }
+
+    // --- Private Helper Methods ---
+
+    private static SearchProfile publish(int cacheSize) {
+        SearchProfile profile = SearchProfile.builder()
+                .rejectedChunkCacheSize(cacheSize)
+                .build();
+        SearchProfile.publish(profile);
+        return profile;
+    }
+}
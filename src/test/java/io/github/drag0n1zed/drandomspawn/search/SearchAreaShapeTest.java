@@ -0,0 +1,135 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.TestBootstrap;
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchAreaShapeTest {
+
+    private static final int GRID = 500;
+
+    @BeforeAll
+    static void bootstrap() {
+        TestBootstrap.bootstrap();
+    }
+
+    @Test
+    void sampledOffsetsLieInTheArea() {
+        int[][] ranges = {{0, 500}, {100, 500}, {1, 3}, {499, 500}, {0, 0}};
+        BlockPos.MutableBlockPos offset = new BlockPos.MutableBlockPos();
+        for (SearchAreaShape shape : SearchAreaShape.values()) {
+            for (int[] range : ranges) {
+                for (int i = 0; i <= 200; i++) {
+                    for (int j = 0; j <= 200; j++) {
+                        // The last row and column sit just below 1, the upper end of the unit square.
+                        double u = Math.min(i / 200.0, 0.9999999);
+                        double v = Math.min(j / 200.0, 0.9999999);
+                        shape.toOffset(u, v, range[0], range[1], offset);
+                        assertTrue(shape.contains(offset.getX(), offset.getZ(), range[0], range[1]),
+                                shape + " " + range[0] + ".." + range[1] + " sampled " + offset.getX() + ", " + offset.getZ());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullSquareReachesItsCorners() {
+        BlockPos.MutableBlockPos offset = new BlockPos.MutableBlockPos();
+
+        SearchAreaShape.SQUARE.toOffset(0, 0, 0, 500, offset);
+        assertEquals(-500, offset.getX());
+        assertEquals(-500, offset.getZ());
+        SearchAreaShape.SQUARE.toOffset(0.9999999, 0.9999999, 0, 500, offset);
+        assertEquals(500, offset.getX());
+        assertEquals(500, offset.getZ());
+    }
+
+    @Test
+    void squareRingIsSampledUniformly() {
+        // Blocks of the ring 100..500 lying less than 300 blocks from the center along both axes, over all blocks of the ring.
+        double expected = (599.0 * 599 - 199.0 * 199) / (1001.0 * 1001 - 199.0 * 199);
+        double inner = innerShare(SearchAreaShape.SQUARE, 100, 500, (dx, dz) -> Math.max(Math.abs(dx), Math.abs(dz)) < 300);
+        assertEquals(expected, inner, 0.01);
+    }
+
+    @Test
+    void circleIsSampledUniformly() {
+        double expected = (300.0 * 300 - 100.0 * 100) / (500.0 * 500 - 100.0 * 100);
+        double inner = innerShare(SearchAreaShape.CIRCLE, 100, 500, (dx, dz) -> (long) dx * dx + (long) dz * dz < 300L * 300);
+        assertEquals(expected, inner, 0.01);
+    }
+
+    @Test
+    void samplesAreSpreadEvenlyAroundTheCenter() {
+        for (SearchAreaShape shape : SearchAreaShape.values()) {
+            assertEquals(0.5, innerShare(shape, 100, 500, (dx, dz) -> dx > 0), 0.01, shape.toString());
+            assertEquals(0.5, innerShare(shape, 100, 500, (dx, dz) -> dz > 0), 0.01, shape.toString());
+        }
+    }
+
+    @Test
+    void radialFractionRunsFromMinToMaxDistance() {
+        for (SearchAreaShape shape : SearchAreaShape.values()) {
+            assertEquals(0, shape.radialFraction(100, 0, 100, 500), shape.toString());
+            assertEquals(0, shape.radialFraction(0, -100, 100, 500), shape.toString());
+            assertEquals(1, shape.radialFraction(-500, 0, 100, 500), shape.toString());
+            assertEquals(1, shape.radialFraction(0, 500, 100, 500), shape.toString());
+        }
+    }
+
+    @Test
+    void radialFractionIsHalfAtTheEqualAreaDistance() {
+        // sqrt((100^2 + 500^2) / 2) is about 360.6, so half the area of either shape lies nearer the center than 360.
+        assertEquals(0.5, SearchAreaShape.CIRCLE.radialFraction(360, 0, 100, 500), 0.005);
+        assertEquals(0.5, SearchAreaShape.CIRCLE.radialFraction(255, 255, 100, 500), 0.005);
+        assertEquals(0.5, SearchAreaShape.SQUARE.radialFraction(360, -20, 100, 500), 0.005);
+    }
+
+    @Test
+    void squareRadialFractionFollowsTheFartherAxis() {
+        double fraction = SearchAreaShape.SQUARE.radialFraction(300, 300, 100, 500);
+
+        assertEquals(fraction, SearchAreaShape.SQUARE.radialFraction(300, -50, 100, 500));
+        assertEquals(fraction, SearchAreaShape.SQUARE.radialFraction(-50, -300, 100, 500));
+        assertEquals(fraction, SearchAreaShape.CIRCLE.radialFraction(300, 0, 100, 500));
+    }
+
+    @Test
+    void radialFractionIsClampedOutsideTheArea() {
+        for (SearchAreaShape shape : SearchAreaShape.values()) {
+            assertEquals(0, shape.radialFraction(10, 10, 100, 500), shape.toString());
+            assertEquals(1, shape.radialFraction(900, 0, 100, 500), shape.toString());
+            assertEquals(1, shape.radialFraction(Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 500), shape.toString());
+            // An area without width has no bands.
+            assertEquals(0, shape.radialFraction(300, 0, 300, 300), shape.toString());
+        }
+    }
+
+    // --- Private Helper Methods ---
+
+    private interface OffsetTest {
+        boolean test(int dx, int dz);
+    }
+
+    /**
+     * Samples the shape at the centers of an evenly spaced grid of the unit square and returns the share of offsets passing {@code test}.
+     */
+    private static double innerShare(SearchAreaShape shape, int minDistance, int maxDistance, OffsetTest test) {
+        BlockPos.MutableBlockPos offset = new BlockPos.MutableBlockPos();
+        int passed = 0;
+        for (int i = 0; i < GRID; i++) {
+            for (int j = 0; j < GRID; j++) {
+                shape.toOffset((i + 0.5) / GRID, (j + 0.5) / GRID, minDistance, maxDistance, offset);
+                if (test.test(offset.getX(), offset.getZ())) {
+                    passed++;
+                }
+            }
+        }
+        return (double) passed / (GRID * GRID);
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.TestBootstrap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderOwner;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.CrudeIncrementalIntIdentityHashBiMap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.UpgradeData;
+import net.minecraft.world.ticks.ProtoChunkTicks;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SectionColumnScannerTest {
+
+    private static final int MIN_Y = -64;
+    private static final int HEIGHT = 384;
+    private static final int X = 5;
+    private static final int Z = 11;
+    private static final Predicate<BlockState> NOT_LAVA_OR_LEAVES =
+            state -> !state.is(Blocks.LAVA) && !state.is(Blocks.OAK_LEAVES);
+
+    @BeforeAll
+    static void bootstrap() {
+        TestBootstrap.bootstrap();
+    }
+
+    @Test
+    void emptyColumnHasNoFloor() {
+        assertEquals(SectionColumnScanner.NO_FLOOR, findFeetY(chunk(), -64, 319));
+    }
+
+    @Test
+    void findsTheHighestGround() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 40, Blocks.STONE);
+        set(chunk, 70, Blocks.GRASS_BLOCK);
+
+        assertEquals(71, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void skipsGapsAboveRejectedGround() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 70, Blocks.LAVA);
+        set(chunk, 60, Blocks.STONE);
+
+        assertEquals(61, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void needsTwoBlocksOfAir() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 52, Blocks.OAK_LEAVES);
+        set(chunk, 50, Blocks.STONE);
+
+        assertEquals(SectionColumnScanner.NO_FLOOR, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void standsAmongPlantsOnTheFloor() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 64, Blocks.NETHERRACK);
+        set(chunk, 65, Blocks.CRIMSON_ROOTS);
+
+        assertEquals(65, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void neverStandsOnOrInFire() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 40, Blocks.STONE);
+        set(chunk, 64, Blocks.NETHERRACK);
+        set(chunk, 65, Blocks.FIRE);
+
+        assertEquals(41, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void blocksThatDoNotStopMovementAreNotGround() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 40, Blocks.STONE);
+        set(chunk, 60, Blocks.TORCH);
+        set(chunk, 70, Blocks.VINE);
+        set(chunk, 80, Blocks.COBWEB);
+
+        assertEquals(41, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void findsFloorBelowACeiling() {
+        ChunkAccess chunk = chunk();
+        // A bedrock ceiling filling a whole section, as in the Nether, with the bounds reaching into it.
+        fillSection(chunk, 112, Blocks.BEDROCK);
+        set(chunk, 64, Blocks.NETHERRACK);
+
+        assertEquals(65, findFeetY(chunk, -64, 120));
+    }
+
+    @Test
+    void standsOnTopOfASolidSection() {
+        ChunkAccess chunk = chunk();
+        fillSection(chunk, 48, Blocks.STONE);
+
+        assertEquals(64, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void solidSectionUnderABlockIsNotGround() {
+        ChunkAccess chunk = chunk();
+        fillSection(chunk, 48, Blocks.STONE);
+        set(chunk, 64, Blocks.STONE);
+
+        assertEquals(65, findFeetY(chunk, -64, 319));
+    }
+
+    @Test
+    void keepsTheFeetWithinTheBounds() {
+        ChunkAccess chunk = chunk();
+        set(chunk, 100, Blocks.STONE);
+        set(chunk, 79, Blocks.STONE);
+        set(chunk, 50, Blocks.STONE);
+
+        assertEquals(80, findFeetY(chunk, -64, 80));
+        assertEquals(51, findFeetY(chunk, -64, 79));
+        assertEquals(51, findFeetY(chunk, 51, 79));
+        assertEquals(SectionColumnScanner.NO_FLOOR, findFeetY(chunk, 52, 79));
+    }
+
+    @Test
+    void findsGroundAtTheBottomOfTheWorld() {
+        ChunkAccess chunk = chunk();
+        set(chunk, -64, Blocks.BEDROCK);
+
+        assertEquals(-63, findFeetY(chunk, -64, 319));
+    }
+
+    // --- Private Helper Methods ---
+
+    private static int findFeetY(ChunkAccess chunk, int minY, int maxY) {
+        return SectionColumnScanner.findFeetY(chunk, X, Z, minY, maxY, NOT_LAVA_OR_LEAVES);
+    }
+
+    /**
+     * Builds an empty chunk without a level. Biomes are a datapack registry, so every section gets a palette
+     * of one stand-alone biome holder instead, and the chunk never needs the biome registry.
+     */
+    private static ChunkAccess chunk() {
+        LevelHeightAccessor height = LevelHeightAccessor.create(MIN_Y, HEIGHT);
+        Holder<Biome> plains = Holder.Reference.createStandAlone(new HolderOwner<>() {
+        }, ResourceKey.create(Registries.BIOME, new ResourceLocation("test", "plains")));
+        CrudeIncrementalIntIdentityHashBiMap<Holder<Biome>> biomeIds = CrudeIncrementalIntIdentityHashBiMap.create(1);
+        biomeIds.add(plains);
+
+        LevelChunkSection[] sections = new LevelChunkSection[height.getSectionsCount()];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new LevelChunkSection(height.getSectionYFromSectionIndex(i),
+                    new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.SECTION_STATES),
+                    new PalettedContainer<>(biomeIds, plains, PalettedContainer.Strategy.SECTION_BIOMES));
+        }
+        return new ProtoChunk(new ChunkPos(0, 0), UpgradeData.EMPTY, sections, new ProtoChunkTicks<>(), new ProtoChunkTicks<>(),
+                height, null, null);
+    }
+
+    private static void set(ChunkAccess chunk, int y, Block block) {
+        chunk.getSection(chunk.getSectionIndex(y)).setBlockState(X, y & 15, Z, block.defaultBlockState());
+    }
+
+    private static void fillSection(ChunkAccess chunk, int sectionBottom, Block block) {
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(sectionBottom));
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    section.setBlockState(x, y, z, block.defaultBlockState());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.TestBootstrap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SectorSuccessMapTest {
+
+    // Four angular sectors times two bands of the square ring 100..500: (300, 10) lies in the inner band east of the center,
+    // (450, 10) in the outer band of the same angle and (-300, 10) in the inner band to the west.
+    private static SearchProfile profile;
+
+    @BeforeAll
+    static void bootstrap() {
+        TestBootstrap.bootstrap();
+        profile = SearchProfile.builder()
+                .distance(100, 500)
+                .sectorMap(4, 2, 0.1)
+                .build();
+    }
+
+    @Test
+    void unprobedSectorsStartAtOneHalf() {
+        SectorSuccessMap map = new SectorSuccessMap(profile, 0, 0, null);
+
+        assertEquals(0.5, map.getSuccessRate(300, 10));
+        assertEquals(0.5, map.getSuccessRate(-300, 10));
+        assertEquals(0.5, map.getSuccessRate(450, 10));
+    }
+
+    @Test
+    void outcomesOnlyCountInTheirSector() {
+        SectorSuccessMap map = new SectorSuccessMap(profile, 0, 0, null);
+        for (int i = 0; i < 10; i++) {
+            map.record(300, 10, false);
+        }
+        map.record(310, 20, true);
+
+        assertEquals(2.0 / 13, map.getSuccessRate(300, 10), 1e-9);
+        assertEquals(0.5, map.getSuccessRate(-300, 10));
+        assertEquals(0.5, map.getSuccessRate(450, 10));
+    }
+
+    @Test
+    void countsAreHalvedOnceASectorReachesTheDecayThreshold() {
+        SectorSuccessMap map = new SectorSuccessMap(profile, 0, 0, null);
+        for (int i = 0; i < 255; i++) {
+            map.record(300, 10, false);
+        }
+        assertEquals(1.0 / 257, map.getSuccessRate(300, 10), 1e-9);
+
+        // The 256th probe halves the counts to 0 safe of 128.
+        map.record(300, 10, false);
+        assertEquals(1.0 / 130, map.getSuccessRate(300, 10), 1e-9);
+
+        // After the decay, new outcomes weigh twice as much: 128 safe probes reach 128 of 256, halved again to 64 of 128.
+        for (int i = 0; i < 128; i++) {
+            map.record(300, 10, true);
+        }
+        assertEquals(65.0 / 130, map.getSuccessRate(300, 10), 1e-9);
+
+        map.record(300, 10, false);
+        assertEquals(65.0 / 131, map.getSuccessRate(300, 10), 1e-9);
+    }
+
+    @Test
+    void sectorsAreTakenAroundTheCenter() {
+        SectorSuccessMap map = new SectorSuccessMap(profile, 1000, -2000, null);
+        map.record(1300, -1990, false);
+
+        assertEquals(1.0 / 3, map.getSuccessRate(1300, -1990), 1e-9);
+        assertEquals(0.5, map.getSuccessRate(700, -1990));
+        assertEquals(0.5, map.getSuccessRate(300, 10));
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.drag0n1zed.drandomspawn.search;
+
+import io.github.drag0n1zed.drandomspawn.TestBootstrap;
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpawnSpatialIndexTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        TestBootstrap.bootstrap();
+    }
+
+    @Test
+    void radiusIsExclusiveAndHorizontal() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(16);
+        index.add(new BlockPos(100, 64, 100));
+
+        assertTrue(index.isNear(110, 100, 16));
+        assertTrue(index.isNear(115, 100, 16));
+        assertFalse(index.isNear(116, 100, 16));
+        // 12 and 12 are just under 17 apart, 12 and 13 just over.
+        assertTrue(index.isNear(112, 112, 17));
+        assertFalse(index.isNear(112, 113, 17));
+    }
+
+    @Test
+    void findsPositionsInNeighbouringCells() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(16);
+        index.add(new BlockPos(15, 64, 15));
+
+        assertTrue(index.isNear(17, 17, 4));
+        assertTrue(index.isNear(13, 18, 4));
+        assertFalse(index.isNear(20, 20, 4));
+    }
+
+    @Test
+    void handlesNegativeCoordinates() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(16);
+        index.add(new BlockPos(-1, 64, -1));
+        index.add(new BlockPos(-1000, 64, 2000));
+
+        assertTrue(index.isNear(1, 1, 3));
+        assertTrue(index.isNear(-17, -1, 17));
+        assertTrue(index.isNear(-990, 2000, 11));
+        assertFalse(index.isNear(-990, 2000, 10));
+    }
+
+    @Test
+    void searchesAllCellsOfARadiusWiderThanACell() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(8);
+        index.add(new BlockPos(0, 64, 100));
+
+        assertTrue(index.isNear(0, 0, 101));
+        assertFalse(index.isNear(0, 0, 100));
+    }
+
+    @Test
+    void removeForgetsOneEntryOfAPosition() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(16);
+        BlockPos pos = new BlockPos(40, 64, -40);
+        index.add(pos);
+        index.add(pos);
+
+        index.remove(pos);
+        assertTrue(index.isNear(40, -40, 1));
+        index.remove(pos);
+        assertFalse(index.isNear(40, -40, 1));
+        // Removing a position that is not indexed is ignored.
+        index.remove(pos);
+        assertFalse(index.isNear(40, -40, 1));
+    }
+
+    @Test
+    void noRadiusIsNeverNear() {
+        SpawnSpatialIndex index = new SpawnSpatialIndex(16);
+        index.add(new BlockPos(0, 64, 0));
+
+        assertFalse(index.isNear(0, 0, 0));
+        assertFalse(index.isNear(0, 0, -5));
+    }
+
+    @Test
+    void cellSizeIsAtLeastOne() {
+        assertEquals(1, new SpawnSpatialIndex(0).getCellSize());
+        assertEquals(32, new SpawnSpatialIndex(32).getCellSize());
+    }
+}